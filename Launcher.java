@@ -2,16 +2,37 @@ import exceptions.InvalidMazeException;
 import exceptions.MazeMalformedException;
 import exceptions.MazeSizeMissmatchException;
 import exceptions.MazeUnsolvableException;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
 import io.*;
+import metrics.MetricsReporter;
+import replay.MoveLog;
+import replay.MoveRecorder;
+import replay.MoveReplayer;
+import simulation.Simulation;
+import simulation.Strategy;
+import solver.BreadthFirstSolver;
+import solver.WeightedSolver;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-
-import java.util.Scanner;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 
 /**
  * Entry point for app.
  * Allows users to load a maze from a text file and choose between a terminal text-based
  * interface or graphical user interface.
+ * <p>
+ * Only the GUI and image export load AWT or Swing classes, so terminal, replay and solve runs
+ * start as quickly as the JVM allows. For scripts that call the launcher many times, launcher.sh
+ * also runs it from an AppCDS archive of the classes it uses.
+ * </p>
  */
 public class Launcher {
 
@@ -21,7 +42,16 @@ public class Launcher {
      * preloaded map if no arguments are given.
      *
      * @param args Command-line arguments. Accepts an optional maze file name and the "GUI" flag to
-     *             use the graphical user interface.
+     *             use the graphical user interface. A ".mlog" file name records the session's
+     *             moves to that file on exit, or with the "REPLAY" flag replays it headlessly.
+     *             The "OFFHEAP" flag maps the maze file into memory instead of loading it.
+     *             A ".png" file name exports an image of the maze and its shortest path to
+     *             that file instead of playing. The "SOLVE" flag prints whether the maze can
+     *             be solved, and the moves and cost of its cheapest path, instead of playing.
+     *             The "SIMULATE" flag walks automated agents of every strategy through the
+     *             maze and prints their statistics instead of playing; the number of agents per
+     *             strategy and the most steps each may take are read from the maze.agents and
+     *             maze.agentSteps system properties.
      * @throws MazeSizeMissmatchException   If the maze dimensions do not match the provided size.
      * @throws IOException                  If there is an issue with file IO.
      * @throws MazeMalformedException       If the maze data is not correctly formatted.
@@ -31,6 +61,12 @@ public class Launcher {
             MazeMalformedException, InvalidMazeException, MazeUnsolvableException {
         String textFileInput = "SmallMap.txt"; // Uses SmallMap.txt by default.
         boolean useGUI = false; // Uses System.out by default.
+        String moveLogFile = null; // Moves are not recorded by default.
+        boolean replay = false;
+        boolean offHeap = false;
+        String imageFile = null; // No image is exported by default.
+        boolean solve = false;
+        boolean simulate = false;
 
         // Process command-line arguments.
         for (String arg : args) {
@@ -38,25 +74,146 @@ public class Launcher {
                 textFileInput = arg;
             } else if (arg.contains("GUI")) {
                 useGUI = true;
+            } else if (arg.endsWith(".mlog")) {
+                moveLogFile = arg;
+            } else if (arg.contains("REPLAY")) {
+                replay = true;
+            } else if (arg.contains("OFFHEAP")) {
+                offHeap = true;
+            } else if (arg.endsWith(".png")) {
+                imageFile = arg;
+            } else if (arg.contains("SOLVE")) {
+                solve = true;
+            } else if (arg.contains("SIMULATE")) {
+                simulate = true;
             }
         }
 
-        Maze mazeUltimate = loadMaze("maps/" + textFileInput);
+        // Null unless metrics are enabled with -Dmaze.metrics=true.
+        MetricsReporter reporter = MetricsReporter.fromSystemProperties();
+        boolean guiRunning = false;
+        try {
+            MazeGrid grid = offHeap ? OffHeapGrid.map("maps/" + textFileInput)
+                    : new FileLoader().loadGrid("maps/" + textFileInput);
+            if (solve) {
+                // Solves the cells directly, without building a maze or its components.
+                System.out.println(WeightedSolver.solve(grid));
+                return;
+            }
+            if (simulate) {
+                simulate(grid);
+                return;
+            }
+            Maze mazeUltimate = new Maze(grid);
 
-        if (useGUI) {
-            MazeGUI gui = new MazeGUI(mazeUltimate);
-            gui.redraw();
-            gui.setVisible(true);
-        } else {
-            try (Scanner scanner = new Scanner(System.in)) {
-                while (!mazeUltimate.hasBeenSolved()) {
-                    mazeUltimate.printMaze();
-                    mazeUltimate.playMaze(scanner.next().charAt(0));
+            if (imageFile != null) {
+                new MazeImageExporter(1, false).writePng(mazeUltimate,
+                        BreadthFirstSolver.solve(mazeUltimate).getPath(), imageFile);
+                return;
+            }
+            if (moveLogFile != null && replay) {
+                replayMoves(mazeUltimate, moveLogFile);
+                return;
+            }
+            if (moveLogFile != null) {
+                recordMoves(mazeUltimate, moveLogFile);
+            }
+
+            if (useGUI) {
+                MazeGUI gui = new MazeGUI(mazeUltimate);
+                gui.redraw();
+                gui.setVisible(true);
+                guiRunning = true;
+            } else {
+                playInTerminal(mazeUltimate);
+                if (mazeUltimate.hasBeenSolved()) {
+                    System.out.println("Congratulations! You solved the maze!");
                 }
-                mazeUltimate.printMaze();
             }
-            System.out.println("Congratulations! You solved the maze!");
+        } finally {
+            if (reporter != null && guiRunning) {
+                // The GUI outlives main and ends the program with System.exit.
+                Runtime.getRuntime().addShutdownHook(new Thread(reporter::close));
+            } else if (reporter != null) {
+                reporter.close();
+            }
+        }
+    }
+
+    /**
+     * Plays the maze with input from the terminal until it is solved or input ends.
+     * Every line already waiting on standard input is queued as one batch, so a pasted move
+     * string such as "dddsssaaa" is applied in full and the maze is printed once per batch rather
+     * than once per character.
+     *
+     * @param maze The maze to play.
+     * @throws IOException             If standard input cannot be read.
+     * @throws MazeUnsolvableException If the maze is found to be unsolvable.
+     */
+    private static void playInTerminal(Maze maze) throws IOException, MazeUnsolvableException {
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+        InputPipeline pipeline = new InputPipeline(maze, maze::printMaze);
+        maze.printMaze();
+        while (!maze.hasBeenSolved()) {
+            String line = input.readLine();
+            if (line == null) {
+                return;
+            }
+            pipeline.submit(line);
+            while (input.ready() && (line = input.readLine()) != null) {
+                pipeline.submit(line);
+            }
+            pipeline.drain();
+        }
+    }
+
+    /**
+     * Replays a recorded move log against the maze without rendering, then prints the outcome.
+     *
+     * @param maze     The maze to replay the moves on.
+     * @param fileName File path of the move log.
+     * @throws IOException If the move log cannot be read.
+     */
+    private static void replayMoves(Maze maze, String fileName) throws IOException {
+        MoveLog log;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+            log = MoveLog.readFrom(in);
         }
+        System.out.println(new MoveReplayer().replay(maze, log));
+    }
+
+    /**
+     * Walks automated agents of every strategy through the maze, then prints their statistics.
+     *
+     * @param grid The cells of the maze to walk.
+     */
+    private static void simulate(MazeGrid grid) {
+        int agents = Integer.getInteger("maze.agents", 1000);
+        long maxSteps = Long.getLong("maze.agentSteps", 100_000);
+        Simulation simulation = new Simulation(grid, false);
+        for (Strategy strategy : Strategy.values()) {
+            simulation.addAgents(strategy, agents, strategy.ordinal());
+        }
+        System.out.println(simulation.run(maxSteps));
+    }
+
+    /**
+     * Attaches a recorder to the maze and saves its move log when the program exits, whether
+     * the maze was solved, the GUI was closed or the session was interrupted.
+     *
+     * @param maze     The maze whose inputs are recorded.
+     * @param fileName File path the move log is written to.
+     */
+    private static void recordMoves(Maze maze, String fileName) {
+        MoveRecorder recorder = new MoveRecorder();
+        maze.setMoveRecorder(recorder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+                recorder.toMoveLog().writeTo(out);
+            } catch (IOException e) {
+                System.err.println("Could not save move log: " + e.getMessage());
+            }
+        }));
     }
 
     /**
@@ -72,6 +229,6 @@ public class Launcher {
     public static Maze loadMaze(String fileName) throws MazeSizeMissmatchException, IOException,
             MazeMalformedException, InvalidMazeException {
         FileLoader fileLoader = new FileLoader();
-        return new Maze(fileLoader.load(fileName));
+        return new Maze(fileLoader.loadGrid(fileName));
     }
 }
\ No newline at end of file
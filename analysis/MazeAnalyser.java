@@ -0,0 +1,244 @@
+package analysis;
+
+import grid.MazeGrid;
+import io.Maze;
+import metrics.Metrics;
+import metrics.Stage;
+
+import java.util.Arrays;
+
+/**
+ * Characterises a maze in one linear pass: connected components, loops, articulation points and
+ * the chokepoints every start to end path must pass through.
+ * <p>
+ * The pass is Tarjan's depth-first search, written iteratively so deep mazes cannot overflow the
+ * call stack. Instead of a stack of frames, each cell stores the direction back to its parent and
+ * the next direction to explore in a single byte, so the whole search uses two int arrays and one
+ * byte array plus a bitset of open cells, about 9 bytes per cell, and no objects per cell.
+ * </p>
+ */
+public final class MazeAnalyser {
+    private static final int[] OPPOSITE = {1, 0, 3, 2};
+
+    // Layout of the per-cell state byte.
+    private static final int NEXT_DIRECTION_MASK = 0x07; // 0-3 to explore, 4 when finished.
+    private static final int PARENT_SHIFT = 3;
+    private static final int PARENT_MASK = 0x03 << PARENT_SHIFT;
+    private static final int HAS_PARENT = 0x20;
+    private static final int END_BELOW = 0x40;
+
+    private MazeAnalyser() {}
+
+    /**
+     * Analyses the cells of a maze.
+     *
+     * @param maze The maze to analyse. Its traversal state is ignored.
+     * @return The analysis.
+     * @throws IllegalArgumentException If the maze has more cells than fit in an array.
+     */
+    public static MazeAnalysis analyse(Maze maze) throws IllegalArgumentException {
+        return analyse(maze.getGrid());
+    }
+
+    /**
+     * Analyses a grid of cells.
+     *
+     * @param grid The cells to analyse.
+     * @return The analysis.
+     * @throws IllegalArgumentException If the grid has more cells than fit in an array.
+     */
+    public static MazeAnalysis analyse(MazeGrid grid) throws IllegalArgumentException {
+        long start = Metrics.start();
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        if ((long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large to analyse: " + rows + "x" + cols);
+        }
+        Search search = new Search(grid, rows, cols);
+        search.run(grid.find(MazeGrid.START), grid.find(MazeGrid.END));
+        Metrics.NODES_EXPANDED.add(search.openCells);
+        Metrics.stop(Stage.ANALYSE, start);
+        return search.toAnalysis();
+    }
+
+    /**
+     * State of a single analysis pass.
+     */
+    private static class Search {
+        private final int cols;
+        private final int cells;
+        private final long[] open;
+        // Discovery time while a cell is on the search path, -(component + 1) once finished.
+        private final int[] disc;
+        private final int[] low;
+        private final byte[] state;
+        private final long[] articulationPoints;
+        private long articulationPointCount;
+        private int[] componentSizes = new int[16];
+        private int componentCount;
+        private int[] chokepoints = new int[16];
+        private int chokepointCount;
+        private long openCells;
+        private long edges;
+        private int time;
+        private boolean solvable;
+
+        Search(MazeGrid grid, int rows, int cols) {
+            this.cols = cols;
+            this.cells = rows * cols;
+            this.open = grid.getTraversableBitmap();
+            this.disc = new int[cells];
+            this.low = new int[cells];
+            this.state = new byte[cells];
+            this.articulationPoints = new long[(cells + 63) >>> 6];
+        }
+
+        /**
+         * Searches every component, starting with the start point's.
+         *
+         * @param startIndex Cell index of the start point, or -1.
+         * @param endIndex   Cell index of the end point, or -1.
+         */
+        void run(long startIndex, long endIndex) {
+            if (startIndex >= 0) {
+                searchComponent((int) startIndex, (int) endIndex);
+                solvable = endIndex >= 0 && disc[(int) endIndex] == -1;
+            }
+            for (int cell = 0; cell < cells; cell++) {
+                if (disc[cell] == 0 && isOpen(cell)) {
+                    searchComponent(cell, -1);
+                }
+            }
+        }
+
+        /**
+         * Runs the depth-first search over the component containing the root.
+         *
+         * @param root     Cell to start from.
+         * @param endIndex Cell whose chokepoints are wanted, or -1 to skip chokepoints.
+         */
+        private void searchComponent(int root, int endIndex) {
+            int component = componentCount;
+            int componentId = -(component + 1);
+            int size = 1;
+            int rootChildren = 0;
+            disc[root] = low[root] = ++time;
+            state[root] = 0;
+
+            int cell = root;
+            while (true) {
+                int direction = state[cell] & NEXT_DIRECTION_MASK;
+                if (direction < 4) {
+                    state[cell]++;
+                    int neighbour = neighbourOf(cell, direction);
+                    if (neighbour < 0 || isParentDirection(cell, direction)) {
+                        continue;
+                    }
+                    if (disc[neighbour] == 0) { // Tree edge: descend.
+                        edges++;
+                        size++;
+                        if (cell == root) {
+                            rootChildren++;
+                        }
+                        disc[neighbour] = low[neighbour] = ++time;
+                        state[neighbour] = (byte) (HAS_PARENT
+                                | (OPPOSITE[direction] << PARENT_SHIFT));
+                        cell = neighbour;
+                    } else if (disc[neighbour] > 0) { // Back edge to an ancestor.
+                        edges++;
+                        low[cell] = Math.min(low[cell], disc[neighbour]);
+                    }
+                    // A finished neighbour is a descendant whose edge was already counted.
+                    continue;
+                }
+
+                // Every direction explored: finish this cell and return to its parent.
+                if (cell == root) {
+                    break;
+                }
+                boolean endBelow = cell == endIndex || (state[cell] & END_BELOW) != 0;
+                int parent = neighbourOf(cell, (state[cell] & PARENT_MASK) >>> PARENT_SHIFT);
+                low[parent] = Math.min(low[parent], low[cell]);
+                boolean separates = low[cell] >= disc[parent];
+                if (separates && parent != root) {
+                    markArticulationPoint(parent);
+                }
+                if (endBelow) {
+                    state[parent] |= END_BELOW;
+                    if (separates && parent != root) {
+                        addChokepoint(parent);
+                    }
+                }
+                disc[cell] = componentId;
+                cell = parent;
+            }
+            disc[root] = componentId;
+            if (rootChildren >= 2) {
+                markArticulationPoint(root);
+            }
+
+            openCells += size;
+            if (componentCount == componentSizes.length) {
+                componentSizes = Arrays.copyOf(componentSizes, componentCount * 2);
+            }
+            componentSizes[componentCount++] = size;
+        }
+
+        /**
+         * Gets the open neighbour of a cell in a direction.
+         *
+         * @param cell      Cell index.
+         * @param direction 0 up, 1 down, 2 left, 3 right.
+         * @return The neighbour's index, or -1 if it is outside the grid or not traversable.
+         */
+        private int neighbourOf(int cell, int direction) {
+            int neighbour = switch (direction) {
+                case 0 -> cell >= cols ? cell - cols : -1;
+                case 1 -> cell < cells - cols ? cell + cols : -1;
+                case 2 -> cell % cols > 0 ? cell - 1 : -1;
+                default -> cell % cols < cols - 1 ? cell + 1 : -1;
+            };
+            return neighbour >= 0 && isOpen(neighbour) ? neighbour : -1;
+        }
+
+        private boolean isOpen(int cell) {
+            return (open[cell >>> 6] & (1L << cell)) != 0;
+        }
+
+        private boolean isParentDirection(int cell, int direction) {
+            return (state[cell] & HAS_PARENT) != 0
+                    && (state[cell] & PARENT_MASK) >>> PARENT_SHIFT == direction;
+        }
+
+        private void markArticulationPoint(int cell) {
+            long bit = 1L << cell;
+            if ((articulationPoints[cell >>> 6] & bit) == 0) {
+                articulationPoints[cell >>> 6] |= bit;
+                articulationPointCount++;
+            }
+        }
+
+        private void addChokepoint(int cell) {
+            if (chokepointCount == chokepoints.length) {
+                chokepoints = Arrays.copyOf(chokepoints, chokepointCount * 2);
+            }
+            chokepoints[chokepointCount++] = cell;
+        }
+
+        /**
+         * Packages the results of the search.
+         *
+         * @return The analysis.
+         */
+        MazeAnalysis toAnalysis() {
+            // Chokepoints are found walking back up from the end point; report them start first.
+            int[] ordered = new int[solvable ? chokepointCount : 0];
+            for (int i = 0; i < ordered.length; i++) {
+                ordered[i] = chokepoints[chokepointCount - 1 - i];
+            }
+            return new MazeAnalysis(cols, openCells, edges,
+                    Arrays.copyOf(componentSizes, componentCount), disc, articulationPoints,
+                    articulationPointCount, ordered, solvable);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package analysis;
+
+/**
+ * The structure of a maze's open cells, as computed by {@link MazeAnalyser}.
+ * Open cells form a graph where each cell is joined to its open neighbours above, below, left and
+ * right. Cells are identified by their row-major index (row * columns + column).
+ */
+public class MazeAnalysis {
+    private final int cols;
+    private final long openCells;
+    private final long edges;
+    private final int[] componentSizes;
+    private final int[] componentOf;
+    private final long[] articulationPoints;
+    private final long articulationPointCount;
+    private final int[] chokepoints;
+    private final boolean solvable;
+
+    /**
+     * Creates an analysis result.
+     *
+     * @param cols                   Columns in the maze.
+     * @param openCells              Number of open cells.
+     * @param edges                  Number of links between adjacent open cells.
+     * @param componentSizes         Number of cells in each connected component.
+     * @param componentOf            Per cell: -(component id + 1), or 0 for walls.
+     * @param articulationPoints     Bitset of articulation point cells.
+     * @param articulationPointCount Number of bits set in articulationPoints.
+     * @param chokepoints            Cells on every start to end path, in path order.
+     * @param solvable               Whether the end point is reachable from the start point.
+     */
+    MazeAnalysis(int cols, long openCells, long edges, int[] componentSizes, int[] componentOf,
+                 long[] articulationPoints, long articulationPointCount, int[] chokepoints,
+                 boolean solvable) {
+        this.cols = cols;
+        this.openCells = openCells;
+        this.edges = edges;
+        this.componentSizes = componentSizes;
+        this.componentOf = componentOf;
+        this.articulationPoints = articulationPoints;
+        this.articulationPointCount = articulationPointCount;
+        this.chokepoints = chokepoints;
+        this.solvable = solvable;
+    }
+
+    /**
+     * Checks whether the maze is perfect: every open cell is reachable and there are no loops,
+     * so there is exactly one route between any two cells.
+     *
+     * @return true if the open cells form a single tree.
+     */
+    public boolean isPerfect() {
+        return componentSizes.length == 1 && getLoopCount() == 0;
+    }
+
+    /**
+     * Gets the number of independent loops (the cycle rank of the open cells).
+     * Each open cell block of 2x2 counts as a loop, as a player can walk around it.
+     *
+     * @return Links minus cells plus components; 0 when there are no loops.
+     */
+    public long getLoopCount() {
+        return edges - openCells + componentSizes.length;
+    }
+
+    /**
+     * Checks whether the end point is reachable from the start point.
+     *
+     * @return true if the maze is solvable.
+     */
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    /**
+     * Gets the number of open cells.
+     *
+     * @return The open cell count.
+     */
+    public long getOpenCellCount() {
+        return openCells;
+    }
+
+    /**
+     * Gets the size of every connected component of open cells. The start point's component is
+     * always first.
+     *
+     * @return Cell counts, one per component.
+     */
+    public int[] getComponentSizes() {
+        return componentSizes.clone();
+    }
+
+    /**
+     * Gets the component a cell belongs to, as an index into {@link #getComponentSizes()}.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return The component index, or -1 if the cell is a wall.
+     */
+    public int getComponentOf(int row, int col) {
+        return -componentOf[row * cols + col] - 1;
+    }
+
+    /**
+     * Checks whether removing a cell would split its component in two.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return true if the cell is an articulation point.
+     */
+    public boolean isArticulationPoint(int row, int col) {
+        int index = row * cols + col;
+        return (articulationPoints[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Gets the number of articulation points.
+     *
+     * @return The articulation point count.
+     */
+    public long getArticulationPointCount() {
+        return articulationPointCount;
+    }
+
+    /**
+     * Gets the cells that lie on every path from the start point to the end point, excluding
+     * the two points themselves. Walling off any one of them makes the maze unsolvable.
+     *
+     * @return Row-major cell indices, ordered from the start point towards the end point. Empty
+     *         if the maze is unsolvable.
+     */
+    public int[] getChokepoints() {
+        return chokepoints.clone();
+    }
+}
@@ -0,0 +1,149 @@
+package benchmarks;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
+import grid.TiledGrid;
+import io.FileLoader;
+import solver.BreadthFirstSolver;
+import solver.Solution;
+
+import java.io.IOException;
+
+/**
+ * Compares breadth-first solve throughput across grid memory layouts.
+ * <p>
+ * A map is repeated in a square of copies, sharing their border walls, with doors opened in
+ * the shared walls and only the first start point and last end point kept. With the default
+ * LargeMap.txt and a scale of 10 this gives a maze with 100 times the cells. The same maze is
+ * then solved repeatedly in each layout.
+ * </p>
+ * <p>
+ * The solver's call sites see every layout when they all run in one JVM, which penalises
+ * whichever runs later. Name a single layout to measure it on its own.
+ * </p>
+ * Usage: {@code java benchmarks.LayoutBenchmark [map file] [scale] [runs]
+ * [all|rows|offheap|tiled64|tiled16]}
+ */
+public class LayoutBenchmark {
+    private static final int WARMUP_RUNS = 5;
+
+    private LayoutBenchmark() {}
+
+    /**
+     * Runs the benchmark and prints one line per layout.
+     *
+     * @param args Optional map file (default maps/LargeMap.txt), number of copies per side
+     *             (default 10), number of timed solves per layout (default 20) and layout
+     *             to run (default all).
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there is an issue with file IO.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the scaled maze is invalid.
+     */
+    public static void main(String[] args) throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        String fileName = args.length > 0 ? args[0] : "maps/LargeMap.txt";
+        int scale = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        char[][] scaled = scale(new FileLoader().load(fileName), scale);
+        MazeGrid rows = new CharArrayGrid(scaled);
+        System.out.printf("%s x%d: %dx%d cells%n", fileName, scale * scale, rows.getRows(),
+                rows.getCols());
+
+        String layout = args.length > 3 ? args[3] : "all";
+        if (layout.equals("all") || layout.equals("rows")) {
+            benchmark("char[][] rows", rows, runs);
+        }
+        if (layout.equals("all") || layout.equals("offheap")) {
+            benchmark("row-major off-heap", OffHeapGrid.copyOf(rows), runs);
+        }
+        if (layout.equals("all") || layout.equals("tiled64")) {
+            benchmark("64x64 tiles", TiledGrid.copyOf(rows), runs);
+        }
+        if (layout.equals("all") || layout.equals("tiled16")) {
+            benchmark("16x16 tiles", TiledGrid.copyOf(rows, 4), runs);
+        }
+    }
+
+    /**
+     * Times repeated solves of one layout.
+     *
+     * @param name Layout name to print.
+     * @param grid The maze in that layout.
+     * @param runs Number of timed solves.
+     */
+    private static void benchmark(String name, MazeGrid grid, int runs) {
+        Solution solution = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            solution = BreadthFirstSolver.solve(grid);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            solution = BreadthFirstSolver.solve(grid);
+        }
+        long elapsed = System.nanoTime() - start;
+        double millis = elapsed / 1e6 / runs;
+        System.out.printf("%-20s %8.2f ms/solve %8.1f M cells/s  path=%d%n", name, millis,
+                solution.getNodesExpanded() / millis / 1e3, solution.getPathLength());
+    }
+
+    /**
+     * Repeats a maze in a square of copies. Neighbouring copies share their border wall, which
+     * gets a door wherever the cells either side of it are both open.
+     *
+     * @param maze  The maze to repeat, with walls all round.
+     * @param scale Number of copies along each side.
+     * @return The scaled maze, with the first copy's start point and the last copy's end point.
+     */
+    static char[][] scale(char[][] maze, int scale) {
+        int tileRows = maze.length - 1;
+        int tileCols = maze[0].length - 1;
+        char[][] scaled = new char[tileRows * scale + 1][tileCols * scale + 1];
+        for (int row = 0; row < scaled.length; row++) {
+            for (int col = 0; col < scaled[0].length; col++) {
+                char cell = maze[row - (row == scaled.length - 1 ? tileRows * (scale - 1)
+                        : row / tileRows * tileRows)][col - (col == scaled[0].length - 1
+                        ? tileCols * (scale - 1) : col / tileCols * tileCols)];
+                boolean firstCopy = row < tileRows && col < tileCols;
+                boolean lastCopy = row >= tileRows * (scale - 1) && col >= tileCols * (scale - 1);
+                if ((cell == MazeGrid.START && !firstCopy)
+                        || (cell == MazeGrid.END && !lastCopy)) {
+                    cell = MazeGrid.PATH;
+                }
+                scaled[row][col] = cell;
+            }
+        }
+        for (int border = 1; border < scale; border++) {
+            openDoor(scaled, border * tileRows, true);
+            openDoor(scaled, border * tileCols, false);
+        }
+        return scaled;
+    }
+
+    /**
+     * Opens every cell of a shared border wall that has open cells on both sides.
+     *
+     * @param maze       The scaled maze.
+     * @param line       Row or column of the shared wall.
+     * @param horizontal Whether the wall is a row rather than a column.
+     */
+    private static void openDoor(char[][] maze, int line, boolean horizontal) {
+        int length = horizontal ? maze[0].length : maze.length;
+        for (int i = 1; i < length - 1; i++) {
+            char before = horizontal ? maze[line - 1][i] : maze[i][line - 1];
+            char after = horizontal ? maze[line + 1][i] : maze[i][line + 1];
+            if (before != MazeGrid.WALL && after != MazeGrid.WALL) {
+                if (horizontal) {
+                    maze[line][i] = MazeGrid.PATH;
+                } else {
+                    maze[i][line] = MazeGrid.PATH;
+                }
+            }
+        }
+    }
+}
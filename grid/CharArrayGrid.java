@@ -0,0 +1,118 @@
+package grid;
+
+import exceptions.InvalidMazeException;
+
+/**
+ * A grid backed directly by the 2D char array produced by {@link io.FileLoader}.
+ * The array is not copied.
+ */
+public class CharArrayGrid implements MazeGrid {
+    private final char[][] cells;
+    private final long startIndex;
+    private final long endIndex;
+    private long pathCount;
+    private long[] traversable; // Null when the values above are unknown.
+
+    /**
+     * Wraps a 2D char array.
+     *
+     * @param cells A 2D array of characters representing the maze map.
+     * @throws InvalidMazeException If the array is null or has no rows or columns.
+     */
+    public CharArrayGrid(char[][] cells) throws InvalidMazeException {
+        if (cells == null || cells.length == 0 || cells[0] == null || cells[0].length == 0) {
+            throw new InvalidMazeException();
+        }
+        this.cells = cells;
+        this.startIndex = -1;
+        this.endIndex = -1;
+        this.pathCount = -1;
+        this.traversable = null;
+    }
+
+    /**
+     * Wraps a 2D char array whose start point, end point, path count and traversable cells are
+     * already known, for example from the pass that validated it. The values are trusted and
+     * not checked against the array.
+     *
+     * @param cells       A 2D array of characters representing the maze map.
+     * @param startIndex  Cell index (row * columns + column) of the start point.
+     * @param endIndex    Cell index of the end point.
+     * @param pathCount   Number of path and terrain cells.
+     * @param traversable Bitmap of traversable cells, as returned by
+     *                    {@link #getTraversableBitmap()}.
+     * @throws InvalidMazeException If the array is null or has no rows or columns.
+     */
+    public CharArrayGrid(char[][] cells, long startIndex, long endIndex, long pathCount,
+                         long[] traversable) throws InvalidMazeException {
+        if (cells == null || cells.length == 0 || cells[0] == null || cells[0].length == 0) {
+            throw new InvalidMazeException();
+        }
+        this.cells = cells;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.pathCount = pathCount;
+        this.traversable = traversable;
+    }
+
+    @Override
+    public int getRows() {
+        return cells.length;
+    }
+
+    @Override
+    public int getCols() {
+        // cells[0] used under assumption that 0th row has same length as all rows in maze.
+        return cells[0].length;
+    }
+
+    @Override
+    public char getCell(int row, int col) {
+        return cells[row][col];
+    }
+
+    @Override
+    public void setCell(int row, int col, char cell) {
+        char old = cells[row][col];
+        cells[row][col] = cell;
+        if (traversable == null || old == cell) {
+            return;
+        }
+        if (old == START || old == END || cell == START || cell == END) {
+            traversable = null; // Fall back to scanning rather than track moved points.
+            return;
+        }
+        if (MazeGrid.isPath(old)) {
+            pathCount--;
+        }
+        if (MazeGrid.isPath(cell)) {
+            pathCount++;
+        }
+        long index = (long) row * getCols() + col;
+        if (MazeGrid.isTraversable(cell)) {
+            traversable[(int) (index >>> 6)] |= 1L << index;
+        } else {
+            traversable[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+    @Override
+    public long find(char cell) {
+        if (traversable != null && cell == START) {
+            return startIndex;
+        } else if (traversable != null && cell == END) {
+            return endIndex;
+        }
+        return MazeGrid.super.find(cell);
+    }
+
+    @Override
+    public long countPaths() {
+        return traversable != null ? pathCount : MazeGrid.super.countPaths();
+    }
+
+    @Override
+    public long[] getTraversableBitmap() {
+        return traversable != null ? traversable : MazeGrid.super.getTraversableBitmap();
+    }
+}
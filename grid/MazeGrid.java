@@ -0,0 +1,205 @@
+package grid;
+
+/**
+ * Raw cell storage for a maze: one character per cell, laid out in rows and columns.
+ * <p>
+ * A grid holds only the characters read from a maze file. Anything with state, such as
+ * {@link mazeComponents.MazeComponent} instances, is built on top of it by {@link io.Maze} as
+ * cells are needed. Implementations are free to choose their own memory layout.
+ * </p>
+ */
+public interface MazeGrid {
+    char WALL = '#';
+    char PATH = ' ';
+    char START = 'S';
+    char END = 'E';
+
+    /**
+     * Gets the number of rows in the grid.
+     *
+     * @return The row count.
+     */
+    int getRows();
+
+    /**
+     * Gets the number of columns in the grid.
+     *
+     * @return The column count.
+     */
+    int getCols();
+
+    /**
+     * Gets the character stored at a cell.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return The cell's character.
+     * @throws IndexOutOfBoundsException If the cell is outside the grid.
+     */
+    char getCell(int row, int col) throws IndexOutOfBoundsException;
+
+    /**
+     * Checks whether a player can stand on a cell.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return true if the cell is a path, terrain, start point or end point.
+     * @throws IndexOutOfBoundsException If the cell is outside the grid.
+     */
+    default boolean isTraversable(int row, int col) throws IndexOutOfBoundsException {
+        return isTraversable(getCell(row, col));
+    }
+
+    /**
+     * Checks whether a player can stand on a cell holding the given character.
+     *
+     * @param cell The cell's character.
+     * @return true if the character is a path, terrain, start point or end point.
+     */
+    static boolean isTraversable(char cell) {
+        return cell == PATH || cell == START || cell == END || TerrainType.of(cell) != null;
+    }
+
+    /**
+     * Checks whether a character is a path or terrain, the cells a maze must see traversed
+     * before it can tell the maze is unsolvable.
+     *
+     * @param cell The cell's character.
+     * @return true if the character is a path or terrain.
+     */
+    static boolean isPath(char cell) {
+        return cell == PATH || TerrainType.of(cell) != null;
+    }
+
+    /**
+     * Changes the character stored at a cell. Grids that cache the start point, end point,
+     * path count or traversable bitmap keep them in step.
+     *
+     * @param row  Row of the cell.
+     * @param col  Column of the cell.
+     * @param cell The new character.
+     * @throws IndexOutOfBoundsException     If the cell is outside the grid.
+     * @throws UnsupportedOperationException If the grid is read-only.
+     */
+    default void setCell(int row, int col, char cell) throws IndexOutOfBoundsException,
+            UnsupportedOperationException {
+        throw new UnsupportedOperationException("Grid is read-only.");
+    }
+
+    /**
+     * Checks whether a coordinate lies inside the grid.
+     *
+     * @param row Row of the coordinate.
+     * @param col Column of the coordinate.
+     * @return true if the coordinate is inside the grid.
+     */
+    default boolean inBounds(int row, int col) {
+        return row >= 0 && row < getRows() && col >= 0 && col < getCols();
+    }
+
+    /**
+     * Gets the position of a cell in this grid's own memory layout. Code that keeps its own
+     * per-cell state can index it by this position to keep that state laid out like the cells.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return A position from 0 inclusive to {@link #getStorageSize()} exclusive.
+     */
+    default long storageIndexOf(int row, int col) {
+        return (long) row * getCols() + col;
+    }
+
+    /**
+     * Gets the number of positions in this grid's memory layout, including any padding.
+     *
+     * @return One more than the largest value {@link #storageIndexOf(int, int)} can return.
+     */
+    default long getStorageSize() {
+        return (long) getRows() * getCols();
+    }
+
+    /**
+     * Gets a bitmap of the traversable cells: bit (index &amp; 63) of word (index / 64) is set
+     * for each cell index (row * columns + column) a player can stand on. Callers must not
+     * modify the returned array.
+     *
+     * @return The bitmap.
+     * @throws IllegalArgumentException If the grid has too many cells for a bitmap array.
+     */
+    default long[] getTraversableBitmap() throws IllegalArgumentException {
+        int rows = getRows();
+        int cols = getCols();
+        long words = ((long) rows * cols + 63) >>> 6;
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large for a bitmap: " + rows + "x" + cols);
+        }
+        long[] bitmap = new long[(int) words];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (isTraversable(row, col)) {
+                    long cell = (long) row * cols + col;
+                    bitmap[(int) (cell >>> 6)] |= 1L << cell;
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Finds the first cell, in row-major order, holding the given character.
+     *
+     * @param cell The character to look for.
+     * @return The cell's index (row * columns + column), or -1 if no cell holds it.
+     */
+    default long find(char cell) {
+        int rows = getRows();
+        int cols = getCols();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (getCell(row, col) == cell) {
+                    return (long) row * cols + col;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the path and terrain cells.
+     *
+     * @return The number of cells for which {@link #isPath(char)} holds.
+     */
+    default long countPaths() {
+        int rows = getRows();
+        int cols = getCols();
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (isPath(getCell(row, col))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the cells holding the given character.
+     *
+     * @param cell The character to count.
+     * @return The number of cells holding it.
+     */
+    default long count(char cell) {
+        int rows = getRows();
+        int cols = getCols();
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (getCell(row, col) == cell) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
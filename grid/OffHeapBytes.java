@@ -0,0 +1,117 @@
+package grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A long-indexed array of bytes stored outside the Java heap.
+ * A single ByteBuffer is limited to 2 GB, so the bytes are split across segments of 1 GB, each
+ * either a direct buffer or a memory-mapped region of a file. Neither counts towards the heap,
+ * so storage of any size adds nothing to garbage collection work. Direct allocations are capped
+ * by -XX:MaxDirectMemorySize, which defaults to the maximum heap size; mapped files are not.
+ */
+public final class OffHeapBytes {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private OffHeapBytes(ByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Allocates zero-filled off-heap storage.
+     *
+     * @param size Number of bytes.
+     * @return The new storage.
+     * @throws IllegalArgumentException If the size is negative.
+     */
+    public static OffHeapBytes allocate(long size) throws IllegalArgumentException {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative size " + size + ".");
+        }
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) segmentLength(size, i));
+        }
+        return new OffHeapBytes(segments, size);
+    }
+
+    /**
+     * Maps part of a file into memory, read-only. Pages are loaded by the operating system as
+     * they are touched, and the mapping remains valid after the channel is closed.
+     *
+     * @param channel  Channel of the file to map.
+     * @param position Offset in the file of the first byte.
+     * @param size     Number of bytes to map.
+     * @return Storage backed by the file.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public static OffHeapBytes map(FileChannel channel, long position, long size)
+            throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position + i * SEGMENT_SIZE, segmentLength(size, i));
+        }
+        return new OffHeapBytes(segments, size);
+    }
+
+    /**
+     * Gets the byte at an index.
+     *
+     * @param index Index of the byte.
+     * @return The byte.
+     * @throws IndexOutOfBoundsException If the index is outside the storage.
+     */
+    public byte get(long index) throws IndexOutOfBoundsException {
+        return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+    }
+
+    /**
+     * Sets the byte at an index.
+     *
+     * @param index Index of the byte.
+     * @param value The new value.
+     * @throws IndexOutOfBoundsException     If the index is outside the storage.
+     * @throws java.nio.ReadOnlyBufferException If the storage is a read-only file mapping.
+     */
+    public void set(long index, byte value) throws IndexOutOfBoundsException {
+        segments[(int) (index >>> SEGMENT_BITS)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    /**
+     * Checks whether the storage can be written to.
+     *
+     * @return false if the storage is a read-only file mapping.
+     */
+    public boolean isWritable() {
+        return segments.length == 0 || !segments[0].isReadOnly();
+    }
+
+    /**
+     * Gets the number of bytes stored.
+     *
+     * @return The size in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    private static int segmentCount(long size) {
+        long count = (size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size " + size + " is too large.");
+        }
+        return (int) count;
+    }
+
+    private static long segmentLength(long size, int segment) {
+        return Math.min(SEGMENT_SIZE, size - segment * SEGMENT_SIZE);
+    }
+}
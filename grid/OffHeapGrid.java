@@ -0,0 +1,330 @@
+package grid;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * A grid whose cells live outside the Java heap, one byte per cell.
+ * <p>
+ * A grid can be copied into direct memory, or mapped straight from a maze file on disk, in which
+ * case the file's own bytes are the cells and nothing is read up front beyond a validation scan.
+ * Either way the heap holds only this object, so heap size and GC pauses do not depend on the
+ * size of the maze, and mazes far larger than a Java array can hold are supported.
+ * </p>
+ */
+public class OffHeapGrid implements MazeGrid {
+    private static final int MAX_HEADER_LENGTH = 64;
+
+    private final OffHeapBytes cells;
+    private final int rows;
+    private final int cols;
+    private final long rowStride;
+    private final long startIndex;
+    private final long endIndex;
+    private long pathCount;
+    private boolean cached = true; // Whether the three values above are known.
+
+    /**
+     * Creates a grid over existing storage.
+     *
+     * @param cells      Cell bytes, row by row.
+     * @param rows       Number of rows.
+     * @param cols       Number of columns.
+     * @param rowStride  Distance in bytes between the starts of consecutive rows.
+     * @param startIndex Cell index of the start point, or -1.
+     * @param endIndex   Cell index of the end point, or -1.
+     * @param pathCount  Number of path and terrain cells.
+     */
+    private OffHeapGrid(OffHeapBytes cells, int rows, int cols, long rowStride, long startIndex,
+                        long endIndex, long pathCount) {
+        this.cells = cells;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.pathCount = pathCount;
+    }
+
+    /**
+     * Copies any grid into direct memory.
+     *
+     * @param grid The grid to copy.
+     * @return An off-heap copy of the grid.
+     */
+    public static OffHeapGrid copyOf(MazeGrid grid) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        OffHeapBytes cells = OffHeapBytes.allocate((long) rows * cols);
+        long start = -1;
+        long end = -1;
+        long paths = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                char cell = grid.getCell(row, col);
+                long index = (long) row * cols + col;
+                cells.set(index, (byte) cell);
+                if (cell == START && start < 0) {
+                    start = index;
+                } else if (cell == END && end < 0) {
+                    end = index;
+                } else if (MazeGrid.isPath(cell)) {
+                    paths++;
+                }
+            }
+        }
+        return new OffHeapGrid(cells, rows, cols, cols, start, end, paths);
+    }
+
+    /**
+     * Maps a maze file directly into memory as a grid, without copying it onto the heap.
+     * The file must be in the format read by {@link io.FileLoader}: a "rows columns" line, then
+     * exactly that many rows of exactly that many cells, separated by '\n' and optionally
+     * followed by blank lines. The whole file is scanned once to validate it and locate the start
+     * and end points, and a bad file raises the same exception as it would from the loader.
+     *
+     * @param filename The path to the maze file to be mapped.
+     * @return A grid backed by the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws FileNotFoundException      If the maze file is not found.
+     * @throws IOException                If the file cannot be read or mapped.
+     */
+    public static OffHeapGrid map(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r");
+             FileChannel channel = file.getChannel()) {
+            long fileSize = channel.size();
+            OffHeapBytes header = OffHeapBytes.map(channel, 0,
+                    Math.min(fileSize, MAX_HEADER_LENGTH));
+            int headerLength = 0;
+            while (headerLength < header.size() && header.get(headerLength) != '\n') {
+                headerLength++;
+            }
+            if (headerLength == header.size() && headerLength == MAX_HEADER_LENGTH) {
+                throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+            }
+            int[] dimensions = parseDimensions(header, headerLength);
+            int rows = dimensions[0];
+            int cols = dimensions[1];
+
+            long dataOffset = Math.min(fileSize, headerLength + 1L);
+            long rowStride = cols + 1L;
+            long expected = rows * rowStride - 1;
+            long dataSize = fileSize - dataOffset;
+            if (dataSize < expected) {
+                throw new MazeSizeMissmatchException
+                        ("Specified dimensions incongruent to provided map.");
+            }
+            OffHeapBytes cells = OffHeapBytes.map(channel, dataOffset, dataSize);
+            return validate(cells, rows, cols, rowStride);
+        }
+    }
+
+    /**
+     * Parses the "rows columns" header line.
+     *
+     * @param header The start of the file.
+     * @param length Length of the header line, excluding its '\n'.
+     * @return The rows and columns.
+     * @throws MazeMalformedException If the line is missing or not two positive integers.
+     */
+    private static int[] parseDimensions(OffHeapBytes header, int length)
+            throws MazeMalformedException {
+        StringBuilder line = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            line.append((char) (header.get(i) & 0xFF));
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        if (header.size() == 0) {
+            throw new MazeMalformedException("No dimensions given.");
+        }
+        String[] dimensionsParsed = line.toString().split(" ");
+        if (dimensionsParsed.length != 2) {
+            throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+        }
+        try {
+            int rows = Integer.parseInt(dimensionsParsed[0]);
+            int cols = Integer.parseInt(dimensionsParsed[1]);
+            if (rows <= 0 || cols <= 0) {
+                throw new MazeMalformedException("Dimensions must be positive.");
+            }
+            return new int[]{rows, cols};
+        } catch (NumberFormatException e) {
+            throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+        }
+    }
+
+    /**
+     * Scans every byte of a mapped file, checking the characters, row lengths and trailing blank
+     * lines and locating the start and end points. Bytes are checked in file order, and each
+     * error raises the exception {@link io.FileLoader} would raise at the same byte.
+     *
+     * @param cells     The mapped maze data.
+     * @param rows      Number of rows.
+     * @param cols      Number of columns.
+     * @param rowStride Bytes per row, including the '\n'.
+     * @return The validated grid.
+     * @throws MazeMalformedException     If a character is invalid or there is not exactly one
+     *                                    start and end point.
+     * @throws MazeSizeMissmatchException If a row is the wrong length or there are too many rows.
+     */
+    private static OffHeapGrid validate(OffHeapBytes cells, int rows, int cols, long rowStride)
+            throws MazeMalformedException, MazeSizeMissmatchException {
+        long start = -1;
+        long end = -1;
+        long paths = 0;
+        for (int row = 0; row < rows; row++) {
+            long rowStart = row * rowStride;
+            for (int col = 0; col < cols; col++) {
+                byte cell = cells.get(rowStart + col);
+                switch (cell) {
+                    case '#', '.' -> {}
+                    case ' ' -> paths++;
+                    case 'S' -> {
+                        if (start >= 0) {
+                            throw new MazeMalformedException("More than one start point.");
+                        }
+                        start = (long) row * cols + col;
+                    }
+                    case 'E' -> {
+                        if (end >= 0) {
+                            throw new MazeMalformedException("More than one end point.");
+                        }
+                        end = (long) row * cols + col;
+                    }
+                    case '\n' -> throw new MazeSizeMissmatchException
+                            ("Specified dimensions incongruent to provided map.");
+                    default -> {
+                        if (TerrainType.of((char) (cell & 0xFF)) == null) {
+                            throw new MazeMalformedException("Invalid character in maze.");
+                        }
+                        paths++;
+                    }
+                }
+            }
+            long rowEnd = rowStart + cols;
+            if (rowEnd < cells.size() && cells.get(rowEnd) != '\n') {
+                rejectOverflow(cells.get(rowEnd), start >= 0, end >= 0);
+            }
+        }
+        for (long i = rows * rowStride; i < cells.size(); i++) {
+            if (cells.get(i) != '\n') {
+                rejectOverflow(cells.get(i), start >= 0, end >= 0);
+            }
+        }
+        if (start < 0 || end < 0) {
+            throw new MazeMalformedException("No start point or end point provided.");
+        }
+        return new OffHeapGrid(cells, rows, cols, rowStride, start, end, paths);
+    }
+
+    /**
+     * Rejects a byte found past the end of a row or after the last row. As in the loader, the
+     * character itself is checked before its position, so a '\r' from a CRLF file is reported
+     * as an invalid character rather than as a long row.
+     *
+     * @param cell     The byte.
+     * @param hasStart Whether a start point has already been found.
+     * @param hasEnd   Whether an end point has already been found.
+     * @throws MazeMalformedException     If the character is invalid or repeats the start or end
+     *                                    point.
+     * @throws MazeSizeMissmatchException Otherwise.
+     */
+    private static void rejectOverflow(byte cell, boolean hasStart, boolean hasEnd)
+            throws MazeMalformedException, MazeSizeMissmatchException {
+        switch (cell) {
+            case '#', '.', ' ' -> {}
+            case 'S' -> {
+                if (hasStart) {
+                    throw new MazeMalformedException("More than one start point.");
+                }
+            }
+            case 'E' -> {
+                if (hasEnd) {
+                    throw new MazeMalformedException("More than one end point.");
+                }
+            }
+            default -> {
+                if (TerrainType.of((char) (cell & 0xFF)) == null) {
+                    throw new MazeMalformedException("Invalid character in maze.");
+                }
+            }
+        }
+        throw new MazeSizeMissmatchException("Specified dimensions incongruent to provided map.");
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public char getCell(int row, int col) throws IndexOutOfBoundsException {
+        if (!inBounds(row, col)) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the "
+                    + rows + "x" + cols + " grid.");
+        }
+        return (char) (cells.get(row * rowStride + col) & 0xFF);
+    }
+
+    /**
+     * Changes the character stored at a cell. Only grids made by {@link #copyOf(MazeGrid)} can
+     * be changed; mapped files are read-only.
+     *
+     * @param row  Row of the cell.
+     * @param col  Column of the cell.
+     * @param cell The new character.
+     * @throws IndexOutOfBoundsException     If the cell is outside the grid.
+     * @throws UnsupportedOperationException If the grid is mapped from a file.
+     */
+    @Override
+    public void setCell(int row, int col, char cell) throws IndexOutOfBoundsException,
+            UnsupportedOperationException {
+        if (!cells.isWritable()) {
+            throw new UnsupportedOperationException("Mapped grid is read-only.");
+        }
+        char old = getCell(row, col);
+        cells.set(row * rowStride + col, (byte) cell);
+        if (!cached || old == cell) {
+            return;
+        }
+        if (old == START || old == END || cell == START || cell == END) {
+            cached = false; // Fall back to scanning rather than track moved points.
+        } else {
+            if (MazeGrid.isPath(old)) {
+                pathCount--;
+            }
+            if (MazeGrid.isPath(cell)) {
+                pathCount++;
+            }
+        }
+    }
+
+    @Override
+    public long find(char cell) {
+        if (cached && cell == START) {
+            return startIndex;
+        } else if (cached && cell == END) {
+            return endIndex;
+        }
+        return MazeGrid.super.find(cell);
+    }
+
+    @Override
+    public long countPaths() {
+        return cached ? pathCount : MazeGrid.super.countPaths();
+    }
+}
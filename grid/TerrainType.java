@@ -0,0 +1,78 @@
+package grid;
+
+/**
+ * Kinds of weighted terrain a maze cell can hold. Terrain is traversable like a path, but
+ * entering it costs more than the single move a path, start point or end point costs. Costs
+ * only matter to cost-aware solvers such as {@link solver.WeightedSolver}; moving the player
+ * and unweighted solvers treat terrain as plain path.
+ */
+public enum TerrainType {
+    GRASS(',', 2),
+    SAND(':', 3),
+    FOREST('%', 5),
+    WATER('~', 8);
+
+    /** Largest cost of entering any cell. */
+    public static final int MAX_COST;
+    private static final TerrainType[] BY_SYMBOL = new TerrainType[128];
+
+    static {
+        int maxCost = 1;
+        for (TerrainType terrain : values()) {
+            BY_SYMBOL[terrain.symbol] = terrain;
+            maxCost = Math.max(maxCost, terrain.cost);
+        }
+        MAX_COST = maxCost;
+    }
+
+    private final char symbol;
+    private final int cost;
+
+    TerrainType(char symbol, int cost) {
+        this.symbol = symbol;
+        this.cost = cost;
+    }
+
+    /**
+     * Gets the character that represents this terrain in maze files and grids.
+     *
+     * @return The terrain's character.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the cost of entering a cell of this terrain.
+     *
+     * @return The cost, at least 2.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Looks up the terrain represented by a character.
+     *
+     * @param symbol The cell's character.
+     * @return The terrain, or null if the character is not terrain.
+     */
+    public static TerrainType of(char symbol) {
+        return symbol < BY_SYMBOL.length ? BY_SYMBOL[symbol] : null;
+    }
+
+    /**
+     * Gets the cost of entering a cell holding the given character.
+     *
+     * @param cell The cell's character.
+     * @return 1 for a path, start point or end point, the terrain's cost for terrain, or 0 if
+     *         the cell cannot be entered.
+     */
+    public static int costOf(char cell) {
+        if (cell == MazeGrid.PATH || cell == MazeGrid.START || cell == MazeGrid.END) {
+            return 1;
+        }
+        TerrainType terrain = of(cell);
+        return terrain == null ? 0 : terrain.cost;
+    }
+}
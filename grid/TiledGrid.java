@@ -0,0 +1,139 @@
+package grid;
+
+import java.util.Arrays;
+
+/**
+ * A grid stored one byte per cell in square tiles, each tile laid out row by row and the tiles
+ * themselves laid out row by row.
+ * <p>
+ * In a row-major layout the cells above and below a cell are a whole row apart, so a search
+ * stepping between rows touches a new cache line, and on large mazes a new page, almost every
+ * time. With 64x64 tiles a tile is 4 KB, one page, and every neighbour of a cell that is not on a
+ * tile edge lies in the same page, so searches that move in any direction keep their working
+ * set small.
+ * </p>
+ */
+public class TiledGrid implements MazeGrid {
+    /** Tile side used by {@link #copyOf(MazeGrid)}: 64x64 one-byte cells fill a 4 KB page. */
+    public static final int DEFAULT_TILE_SHIFT = 6;
+
+    private final byte[] cells;
+    private final int rows;
+    private final int cols;
+    private final int tileShift;
+    private final int tileMask;
+    private final int tilesPerRow;
+
+    /**
+     * Creates a grid of walls.
+     *
+     * @param rows      Number of rows.
+     * @param cols      Number of columns.
+     * @param tileShift Log2 of the tile side, e.g. 6 for 64x64 tiles.
+     * @throws IllegalArgumentException If the dimensions are not positive, the tile shift is
+     *                                  outside 1 to 12, or the padded grid is too large.
+     */
+    public TiledGrid(int rows, int cols, int tileShift) throws IllegalArgumentException {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive.");
+        }
+        if (tileShift < 1 || tileShift > 12) {
+            throw new IllegalArgumentException("Tile shift " + tileShift + " out of range.");
+        }
+        int tileSide = 1 << tileShift;
+        long tileRows = (rows + tileSide - 1L) >> tileShift;
+        long tilesPerRow = (cols + tileSide - 1L) >> tileShift;
+        long size = (tileRows * tilesPerRow) << (2 * tileShift);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large to tile: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.tileShift = tileShift;
+        this.tileMask = tileSide - 1;
+        this.tilesPerRow = (int) tilesPerRow;
+        this.cells = new byte[(int) size];
+        // Padding beyond the last row and column is never read, but is kept as walls.
+        Arrays.fill(cells, (byte) WALL);
+    }
+
+    /**
+     * Copies any grid into 64x64 tiles.
+     *
+     * @param grid The grid to copy.
+     * @return A tiled copy of the grid.
+     * @throws IllegalArgumentException If the grid is too large to tile.
+     */
+    public static TiledGrid copyOf(MazeGrid grid) throws IllegalArgumentException {
+        return copyOf(grid, DEFAULT_TILE_SHIFT);
+    }
+
+    /**
+     * Copies any grid into tiles of a given size.
+     *
+     * @param grid      The grid to copy.
+     * @param tileShift Log2 of the tile side.
+     * @return A tiled copy of the grid.
+     * @throws IllegalArgumentException If the tile shift is out of range or the grid is too
+     *                                  large to tile.
+     */
+    public static TiledGrid copyOf(MazeGrid grid, int tileShift) throws IllegalArgumentException {
+        TiledGrid tiled = new TiledGrid(grid.getRows(), grid.getCols(), tileShift);
+        for (int row = 0; row < tiled.rows; row++) {
+            for (int col = 0; col < tiled.cols; col++) {
+                tiled.cells[tiled.indexOf(row, col)] = (byte) grid.getCell(row, col);
+            }
+        }
+        return tiled;
+    }
+
+    /**
+     * Gets the position of a cell in the backing array.
+     *
+     * @param row Row coordinate.
+     * @param col Column coordinate.
+     * @return The array index.
+     */
+    private int indexOf(int row, int col) {
+        int tile = (row >> tileShift) * tilesPerRow + (col >> tileShift);
+        return (tile << (2 * tileShift)) + ((row & tileMask) << tileShift) + (col & tileMask);
+    }
+
+    @Override
+    public long storageIndexOf(int row, int col) {
+        return indexOf(row, col);
+    }
+
+    @Override
+    public long getStorageSize() {
+        return cells.length;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public char getCell(int row, int col) throws IndexOutOfBoundsException {
+        if (!inBounds(row, col)) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the "
+                    + rows + "x" + cols + " grid.");
+        }
+        return (char) (cells[indexOf(row, col)] & 0xFF);
+    }
+
+    @Override
+    public void setCell(int row, int col, char cell) throws IndexOutOfBoundsException {
+        if (!inBounds(row, col)) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the "
+                    + rows + "x" + cols + " grid.");
+        }
+        cells[indexOf(row, col)] = (byte) cell;
+    }
+}
@@ -0,0 +1,160 @@
+package io;
+
+import mazeComponents.MazeComponent;
+
+/**
+ * Open-addressing map from cell index to the MazeComponent materialised for that cell.
+ * Uses primitive long keys so lookups on the move path neither box nor allocate.
+ */
+class ComponentCache {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private MazeComponent[] values = new MazeComponent[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Gets the component stored for a cell.
+     *
+     * @param key Index of the cell.
+     * @return The component, or null if none has been stored.
+     */
+    MazeComponent get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the component for a cell, replacing any existing one.
+     *
+     * @param key   Index of the cell.
+     * @param value The component. Must not be null.
+     */
+    void put(long key, MazeComponent value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Removes the component stored for a cell.
+     * Later entries in the same probe run are shifted back into the freed slot, so lookups never
+     * need tombstones.
+     *
+     * @param key Index of the cell.
+     * @return The removed component, or null if none was stored.
+     */
+    MazeComponent remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        MazeComponent removed = values[slot];
+        if (removed == null) {
+            return null;
+        }
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            int home = slotOf(keys[next], mask);
+            // Move the entry back unless its home slot lies cyclically in (free, next].
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Passes every stored component to the visitor, in no particular order.
+     *
+     * @param visitor Receives each cell index and its component.
+     */
+    void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (values[slot] != null) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Removes every stored component.
+     */
+    void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new MazeComponent[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Gets the number of components stored.
+     *
+     * @return The number of materialised cells.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the table, reinserting every entry.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        MazeComponent[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new MazeComponent[oldValues.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Spreads a key over the table.
+     *
+     * @param key  Index of the cell.
+     * @param mask Table size minus one.
+     * @return The first slot to probe.
+     */
+    private static int slotOf(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    /**
+     * Receives the entries of a cache.
+     */
+    interface Visitor {
+        /**
+         * Visits one stored component.
+         *
+         * @param key   Index of the cell.
+         * @param value The cell's component.
+         */
+        void visit(long key, MazeComponent value);
+    }
+}
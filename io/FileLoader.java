@@ -1,14 +1,48 @@
 package io;
 
+import exceptions.InvalidMazeException;
 import exceptions.MazeMalformedException;
 import exceptions.MazeSizeMissmatchException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import metrics.Metrics;
+import metrics.Stage;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 public class FileLoader implements FileInterface {
+    /** Largest number of rows or columns accepted by {@link #FileLoader()}. */
+    public static final int DEFAULT_MAX_DIMENSION = 32768;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final int maxDimension;
+
+    /**
+     * Creates a loader that accepts mazes of up to {@link #DEFAULT_MAX_DIMENSION} rows and
+     * columns.
+     */
+    public FileLoader() {
+        this(DEFAULT_MAX_DIMENSION);
+    }
+
+    /**
+     * Creates a loader with a custom limit on maze size.
+     *
+     * @param maxDimension Largest number of rows or columns to accept.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public FileLoader(int maxDimension) throws IllegalArgumentException {
+        if (maxDimension <= 0) {
+            throw new IllegalArgumentException("Maximum dimension must be positive.");
+        }
+        this.maxDimension = maxDimension;
+    }
 
     /**
      * Loads a maze from the specified filename and converts it into a 2D character array.
@@ -16,6 +50,16 @@ public class FileLoader implements FileInterface {
      * This method attempts to read a maze file with the following expectations:
      * - The first line should contain the maze's dimensions, separated by a space (e.g., "10 15").
      * - Subsequent lines should provide the maze data with specific characters representing the maze elements.
+     * Besides '#', ' ', '.', 'S' and 'E', cells may hold weighted terrain, one character per
+     * {@link grid.TerrainType}.
+     * </p>
+     * <p>
+     * The file is validated before the maze array is allocated, cheapest checks first: the
+     * dimensions against the configured maximum, then the file length against the dimensions,
+     * then one streaming pass over the maze data, eight bytes at a time where it can, checking
+     * characters, row lengths and start and end points. Only a file that passes every check is
+     * read a second time into the array, so a malformed file costs at most one read and a bogus
+     * header costs almost nothing.
      * </p>
      * <p>
      * Exception Handling:
@@ -27,7 +71,8 @@ public class FileLoader implements FileInterface {
      *
      * @param filename The path to the maze file to be loaded.
      * @return A 2D character array representing the loaded maze.
-     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted, or the
+     *                                    dimensions exceed the maximum.
      * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
      * @throws IllegalArgumentException   For other validation errors.
      * @throws FileNotFoundException      If the maze file is not found.
@@ -36,81 +81,182 @@ public class FileLoader implements FileInterface {
     @Override
     public char[][] load(String filename) throws MazeMalformedException, MazeSizeMissmatchException,
             IllegalArgumentException, IOException {
-        // Get maze dimensions from first line of the file.
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String dimensionsLine = reader.readLine();
-            if (dimensionsLine == null) {
-                throw new MazeMalformedException("No dimensions given.");
-            }
-
-            String[] dimensionsParsed = dimensionsLine.split(" ");
-            if (dimensionsParsed.length != 2) {
-                throw new MazeMalformedException("Dimensions not provided in appropriate format.");
-            }
+        long start = Metrics.start();
+        long[] bytesRead = new long[1];
+        try {
+            Header header = validate(filename, false, bytesRead);
+            return fill(filename, header, bytesRead);
+        } finally {
+            Metrics.BYTES_READ.add(bytesRead[0]);
+            Metrics.stop(Stage.LOAD, start);
+        }
+    }
 
-            int expectedRows = Integer.parseInt(dimensionsParsed[0]);
-            int expectedColumns = Integer.parseInt(dimensionsParsed[1]);
-
-            // Create 2D array that maps the given maze with appropriate dimensions.
-            char[][] mazeMap = new char[expectedRows][expectedColumns];
-            int currentRow = 0;
-            int currentCol = 0;
-            boolean hasStartPoint = false;
-            boolean hasEndPoint = false;
-
-            int dataIn = reader.read();
-            while (dataIn != -1) {
-                char castedChar = (char) dataIn;
-
-                // Do not add new line characters to the array.
-                // \n indicates the end of a row.
-                if (castedChar == '\n') {
-                    currentCol = 0;
-                    currentRow++;
-                    dataIn = reader.read();
-                    continue;
-                }
-                switch (castedChar) {
-                    case '#', ' ', '.' -> {}
-                    case 'S' -> {
-                        if (hasStartPoint) { // Throws error if there already exists a start point.
-                            throw new MazeMalformedException("More than one start point.");
-                        }
-                        hasStartPoint = true;
-                    }
-                    case 'E' -> {
-                        if (hasEndPoint) { // Throws error if there already exists an end point.
-                            throw new MazeMalformedException("More than one end point.");
-                        }
-                        hasEndPoint = true;
-                    }
-                    default -> throw new MazeMalformedException("Invalid character in maze.");
-                }
+    /**
+     * Loads a maze file as a grid that already knows its start point, end point, path count and
+     * traversable cells, all found during validation, so building a {@link Maze} or analysing
+     * it does not scan the cells again.
+     *
+     * @param filename The path to the maze file to be loaded.
+     * @return A grid of the loaded maze.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted, or the
+     *                                    dimensions exceed the maximum.
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException   For other validation errors.
+     * @throws FileNotFoundException      If the maze file is not found.
+     * @throws IOException                If the file cannot be read.
+     */
+    public MazeGrid loadGrid(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, IOException {
+        long start = Metrics.start();
+        long[] bytesRead = new long[1];
+        try {
+            Header header = validate(filename, true, bytesRead);
+            char[][] mazeMap = fill(filename, header, bytesRead);
+            RowScanner scan = header.scan;
+            return new CharArrayGrid(mazeMap, scan.getStartIndex(), scan.getEndIndex(),
+                    scan.getPathCount(), scan.getTraversable());
+        } catch (InvalidMazeException e) {
+            throw new IllegalStateException("Validated maze was empty.", e);
+        } finally {
+            Metrics.BYTES_READ.add(bytesRead[0]);
+            Metrics.stop(Stage.LOAD, start);
+        }
+    }
 
-                if (currentRow >= expectedRows || currentCol >= expectedColumns) {
-                    throw new MazeSizeMissmatchException
-                            ("Specified dimensions incongruent to provided map.");
-                }
+    /**
+     * Checks a maze file without allocating anything proportional to the maze, other than the
+     * traversable cell bitmap if asked for.
+     *
+     * @param filename         The path to the maze file.
+     * @param trackTraversable Whether to record a bitmap of traversable cells.
+     * @param bytesRead        Running count of bytes read, updated in place.
+     * @return The parsed dimensions line, with the completed scan.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If the file cannot be read.
+     */
+    private Header validate(String filename, boolean trackTraversable, long[] bytesRead)
+            throws MazeMalformedException, MazeSizeMissmatchException, IOException {
+        try (FileInputStream in = new FileInputStream(filename)) {
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int length = in.readNBytes(chunk, 0, chunk.length);
+            bytesRead[0] += length;
+            Header header = parseHeader(chunk, length);
 
-                mazeMap[currentRow][currentCol] = castedChar;
-                currentCol++;
-                dataIn = reader.read();
+            // Size from header against file length: every row but the last ends in '\n'.
+            long dataLength = in.getChannel().size() - header.length;
+            if (dataLength < (long) header.rows * (header.columns + 1) - 1) {
+                throw new MazeSizeMissmatchException
+                        ("Specified dimensions incongruent to provided map.");
             }
 
-            // Maze must have a single start and end point.
-            if (!hasStartPoint || !hasEndPoint) {
-                throw new MazeMalformedException("No start point or end point provided.");
+            RowScanner scan = new RowScanner(header.rows, header.columns, trackTraversable);
+            int offset = header.length;
+            while (length > 0) {
+                scan.accept(chunk, offset, length);
+                offset = 0;
+                length = in.read(chunk);
+                if (length > 0) {
+                    bytesRead[0] += length;
+                }
             }
+            scan.finish();
+            header.scan = scan;
+            return header;
+        }
+    }
+
+    /**
+     * Parses the dimensions line at the start of the file.
+     *
+     * @param chunk  The first bytes of the file.
+     * @param length Number of valid bytes in the chunk.
+     * @return The dimensions and the length of the line including its terminator.
+     * @throws MazeMalformedException If the line is missing, is not two integers separated by a
+     *                                space, or either dimension is not positive or is over the
+     *                                maximum dimension.
+     */
+    private Header parseHeader(byte[] chunk, int length) throws MazeMalformedException {
+        if (length == 0) {
+            throw new MazeMalformedException("No dimensions given.");
+        }
+        int end = 0;
+        while (end < length && chunk[end] != '\n' && chunk[end] != '\r') {
+            end++;
+        }
+        if (end == CHUNK_SIZE) {
+            throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+        }
+        int headerLength = end;
+        if (end < length) {
+            headerLength += chunk[end] == '\r' && end + 1 < length && chunk[end + 1] == '\n'
+                    ? 2 : 1;
+        }
 
-            reader.close();
+        String dimensionsLine = new String(chunk, 0, end, StandardCharsets.UTF_8);
+        String[] dimensionsParsed = dimensionsLine.split(" ");
+        if (dimensionsParsed.length != 2) {
+            throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+        }
+
+        int expectedRows;
+        int expectedColumns;
+        try {
+            expectedRows = Integer.parseInt(dimensionsParsed[0]);
+            expectedColumns = Integer.parseInt(dimensionsParsed[1]);
+        } catch (NumberFormatException e) {
+            throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+        }
+        if (expectedRows <= 0 || expectedColumns <= 0) {
+            throw new MazeMalformedException("Dimensions must be positive.");
+        }
+        if (expectedRows > maxDimension || expectedColumns > maxDimension) {
+            throw new MazeMalformedException("Dimensions exceed the maximum of " + maxDimension
+                    + ".");
+        }
+        return new Header(expectedRows, expectedColumns, headerLength);
+    }
 
+    /**
+     * Reads a validated maze file into a 2D character array.
+     *
+     * @param filename  The path to the maze file.
+     * @param header    The file's dimensions line.
+     * @param bytesRead Running count of bytes read, updated in place.
+     * @return A 2D character array representing the maze.
+     * @throws IOException If the file cannot be read.
+     */
+    private static char[][] fill(String filename, Header header, long[] bytesRead)
+            throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(filename),
+                CHUNK_SIZE)) {
+            in.skipNBytes(header.length);
+            char[][] mazeMap = new char[header.rows][header.columns];
+            byte[] line = new byte[header.columns + 1];
+            for (char[] row : mazeMap) {
+                bytesRead[0] += in.readNBytes(line, 0, line.length);
+                for (int col = 0; col < row.length; col++) {
+                    row[col] = (char) line[col];
+                }
+            }
             return mazeMap;
+        }
+    }
+
+    /**
+     * The dimensions line of a maze file.
+     */
+    private static class Header {
+        private final int rows;
+        private final int columns;
+        private final int length;
+        private RowScanner scan;
 
-        } catch (FileNotFoundException e) {
-            // Handle the FileNotFoundException here, or rethrow it if you want the caller to handle it.
-            throw e;
-        } catch (IOException e) {
-            throw e;
+        Header(int rows, int columns, int length) {
+            this.rows = rows;
+            this.columns = columns;
+            this.length = length;
         }
     }
 }
@@ -0,0 +1,96 @@
+package io;
+
+import exceptions.MazeUnsolvableException;
+
+/**
+ * Decouples player input from game-state updates and rendering.
+ * Inputs are queued as they arrive, from any thread, and applied in batches by {@link #drain()},
+ * which renders at most once per batch. Pasted or scripted move strings therefore cost one
+ * render per batch instead of one per character. Inputs queued after the maze has been solved
+ * are discarded.
+ */
+public class InputPipeline {
+    private final Maze maze;
+    private final Runnable renderer;
+    private final Object lock = new Object();
+    private StringBuilder queued = new StringBuilder();
+    private StringBuilder draining = new StringBuilder();
+
+    /**
+     * Creates a pipeline for a maze.
+     *
+     * @param maze     The maze that inputs are played on.
+     * @param renderer Draws the maze; called after each batch that changed anything.
+     */
+    public InputPipeline(Maze maze, Runnable renderer) {
+        this.maze = maze;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Queues a single input.
+     *
+     * @param input A directional input (actionable: one of w, a, s, d).
+     */
+    public void submit(char input) {
+        synchronized (lock) {
+            queued.append(input);
+        }
+    }
+
+    /**
+     * Queues every character of a string of inputs, in order.
+     *
+     * @param inputs Directional inputs, e.g. "dddsssaaa".
+     */
+    public void submit(CharSequence inputs) {
+        synchronized (lock) {
+            queued.append(inputs);
+        }
+    }
+
+    /**
+     * Checks whether any inputs are waiting to be applied.
+     *
+     * @return true if inputs are queued.
+     */
+    public boolean hasQueuedInput() {
+        synchronized (lock) {
+            return queued.length() > 0;
+        }
+    }
+
+    /**
+     * Applies every queued input through {@link Maze#playMaze(char)}, stopping early if the maze
+     * is solved, then renders once if any inputs were applied. Must be called from a single
+     * thread at a time, typically the one that owns the display.
+     *
+     * @return The number of inputs applied.
+     * @throws MazeUnsolvableException If the maze is found to be unsolvable while applying the
+     *                                 batch. Inputs after the failing one are discarded.
+     */
+    public int drain() throws MazeUnsolvableException {
+        StringBuilder batch;
+        synchronized (lock) {
+            if (queued.length() == 0) {
+                return 0;
+            }
+            batch = queued;
+            queued = draining;
+            draining = batch;
+        }
+        int applied = 0;
+        try {
+            for (int i = 0; i < batch.length() && !maze.hasBeenSolved(); i++) {
+                maze.playMaze(batch.charAt(i));
+                applied++;
+            }
+        } finally {
+            batch.setLength(0);
+        }
+        if (applied > 0) {
+            renderer.run();
+        }
+        return applied;
+    }
+}
@@ -2,76 +2,108 @@ package io;
 
 import exceptions.InvalidMazeException;
 import exceptions.MazeUnsolvableException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.TerrainType;
 import mazeComponents.*;
+import metrics.Metrics;
+import metrics.Stage;
+import replay.MoveRecorder;
 
 public class Maze {
-    private MazeComponent[][] componentMaze;
-    private StartPoint startPoint;
-    private EndPoint endPoint;
+    private final MazeGrid grid;
+    private final ComponentCache components = new ComponentCache();
+    private final MazeComponent[] prototypes = new MazeComponent[128];
+    private final StartPoint startPoint;
+    private final EndPoint endPoint;
     private final Player player;
     private final int[] dimensions;
+    private long pathCount = -1; // Counted on first use.
+    private long traversedPathCount;
+    private MoveRecorder moveRecorder;
+    private MazeEditListener editListener;
 
     /**
-     * A 2D array consisting of unique instances of the MazeComponent class.
+     * A maze built on top of the given 2D array of characters.
      * Also instantiates instance of player that will be unique to the maze.
      *
      * @param charMaze A 2D array of characters representing the maze map.
      * @throws InvalidMazeException For invalid parameter handling.
      */
     public Maze(char[][] charMaze) throws InvalidMazeException {
-        if (charMaze == null || charMaze.length == 0 || charMaze[0].length == 0) {
+        this(new CharArrayGrid(charMaze));
+    }
+
+    /**
+     * A maze built on top of the given grid of cells.
+     * MazeComponent instances are not created up front. Each one is created the first time its
+     * cell is visited or requested through {@link #getComponentAt(int, int)}, so building a maze
+     * only has to locate the start and end points, and memory grows with the cells touched
+     * rather than the size of the maze.
+     * Also instantiates instance of player that will be unique to the maze.
+     *
+     * @param grid The cells of the maze.
+     * @throws InvalidMazeException If the grid is empty or lacks a start or end point.
+     */
+    public Maze(MazeGrid grid) throws InvalidMazeException {
+        if (grid == null || grid.getRows() == 0 || grid.getCols() == 0) {
+            throw new InvalidMazeException();
+        }
+        long start = Metrics.start();
+        this.grid = grid;
+        this.dimensions = new int[]{grid.getRows(), grid.getCols()};
+        long startIndex = grid.find(MazeGrid.START);
+        long endIndex = grid.find(MazeGrid.END);
+        if (startIndex < 0 || endIndex < 0) {
             throw new InvalidMazeException();
         }
-        // charMaze[0] used under assumption that 0th row has same length as all rows in maze.
-        this.dimensions = new int[]{charMaze.length, charMaze[0].length};
-        initializeMazeComponents(charMaze);
+        this.startPoint = (StartPoint) getComponentAt(rowOf(startIndex), colOf(startIndex));
+        this.endPoint = (EndPoint) getComponentAt(rowOf(endIndex), colOf(endIndex));
         this.player = new Player(startPoint.getComponentRow(), startPoint.getComponentCol());
+        Metrics.stop(Stage.BUILD, start);
     }
 
     /**
-     * Converts given 2D char array into 2D MazeComponent array.
-     * Iterates through given charMaze and instantiates corresponding MazeComponent.
-     * '#' -> Wall, ' ' -> Path, 'S' -> StartPoint, 'E' -> EndPoint.
+     * Instantiates the MazeComponent corresponding to a cell's character.
+     * '#' -> Wall, ' ' -> Path, 'S' -> StartPoint, 'E' -> EndPoint, terrain -> Terrain.
      *
-     * @param charMaze A 2D array of characters representing the maze map.
+     * @param element The cell's character.
+     * @param row     Row of the cell.
+     * @param col     Column of the cell.
+     * @return The new component, or null if the character has no component.
      */
-    private void initializeMazeComponents(char[][] charMaze) {
-        this.componentMaze = new MazeComponent[dimensions[0]][dimensions[1]];
-        for (int row = 0; row < dimensions[0]; row++) {
-            for (int col = 0; col < dimensions[1]; col++) {
-                char element = charMaze[row][col];
-                // Error handling not required as charMaze contents already validated in fileLoader.
-                switch (element) {
-                    case '#' -> componentMaze[row][col] = new Wall(row, col);
-                    case 'S' -> {
-                        startPoint = new StartPoint(row, col);
-                        componentMaze[row][col] = startPoint;
-                    }
-                    case 'E' -> {
-                        endPoint = new EndPoint(row, col);
-                        componentMaze[row][col] = endPoint;
-                    }
-                    case ' ' -> componentMaze[row][col] = new Path(row, col);
-                }
+    private static MazeComponent createComponent(char element, int row, int col) {
+        // Error handling not required as cell contents already validated in fileLoader.
+        return switch (element) {
+            case MazeGrid.WALL -> new Wall(row, col);
+            case MazeGrid.START -> new StartPoint(row, col);
+            case MazeGrid.END -> new EndPoint(row, col);
+            case MazeGrid.PATH -> new Path(row, col);
+            default -> {
+                TerrainType terrain = TerrainType.of(element);
+                yield terrain == null ? null : new Terrain(row, col, terrain);
             }
-        }
+        };
     }
 
     /**
      * Prints a visual representation of maze to the terminal.
-     * Iterates through componentMaze and prints corresponding component representation.
+     * Iterates through the grid and prints corresponding component representation. Cells that
+     * have not been visited are printed without creating a component for them.
      */
     public void printMaze() {
+        long start = Metrics.start();
         for (int row = 0; row < dimensions[0]; row++) {
             for (int col = 0; col < dimensions[1]; col++) {
                 if (row == player.getPlayerRow() && col == player.getPlayerCol()) {
                     System.out.print(player.getPlayerRep());
                 } else {
-                    System.out.print(componentMaze[row][col].getComponentRep());
+                    System.out.print(viewComponentAt(row, col).getComponentRep());
                 }
             }
             System.out.println();
         }
+        Metrics.stop(Stage.RENDER, start);
     }
 
     /**
@@ -85,16 +117,20 @@ public class Maze {
      * @return boolean -> true if move is valid, false if move is invalid.
      */
     public boolean validMove(int nextRow, int nextCol) {
-        return nextRow >= 0 && nextCol < dimensions[1]
-                && getComponentAt(nextRow, nextCol).isTraversable();
+        return grid.inBounds(nextRow, nextCol) && grid.isTraversable(nextRow, nextCol);
     }
 
     /**
      * Takes an input and changes player's position accordingly.
      *
+     * If a move recorder is attached, every actionable input is recorded before it is played.
+     *
      * @param input A single character indicating directional input (actionable: one of w, a, s, d).
      */
     public void playMaze(char input) throws MazeUnsolvableException {
+        if (moveRecorder != null) {
+            moveRecorder.record(input);
+        }
         switch (input) {
             case 'w' -> movePlayer(-1, 0); // Up.
             case 's' -> movePlayer(1, 0); // Down.
@@ -117,13 +153,27 @@ public class Maze {
      * @param changeCol Amount to increase/decrease player's column by.
      */
     public void movePlayer(int changeRow, int changeCol) throws MazeUnsolvableException {
+        long start = Metrics.start();
+        try {
+            applyMove(changeRow, changeCol);
+        } finally {
+            Metrics.stop(Stage.MOVE, start);
+        }
+    }
+
+    /**
+     * Performs the move described by {@link #movePlayer(int, int)}.
+     *
+     * @param changeRow Amount to increase/decrease player's row by.
+     * @param changeCol Amount to increase/decrease player's column by.
+     */
+    private void applyMove(int changeRow, int changeCol) throws MazeUnsolvableException {
         int currentRow = player.getPlayerRow();
         int currentCol = player.getPlayerCol();
         int newRow = currentRow + changeRow;
         int newCol = currentCol + changeCol;
-        MazeComponent currentTile = getComponentAt(currentRow, currentCol);
-        MazeComponent newTile = getComponentAt(newRow, newCol);
         if (validMove(newRow, newCol)) {
+            MazeComponent newTile = getComponentAt(newRow, newCol);
             getPlayer().incrementRow(changeRow);
             getPlayer().incrementCol(changeCol);
             if (allPathsTraversed() && !hasBeenSolved()) {
@@ -132,9 +182,12 @@ public class Maze {
             }
             // Path traversal and re-traversal highlighting.
             if (newTile.isTraversedOnce()) {
-                currentTile.setTraversedTwice();
+                getComponentAt(currentRow, currentCol).setTraversedTwice();
             } else {
                 newTile.setTraversedOnce();
+                if (newTile instanceof Path) {
+                    traversedPathCount++;
+                }
             }
         }
     }
@@ -151,33 +204,303 @@ public class Maze {
     }
 
     /**
-     * Iterates through the mazeComponent array to see if all paths have been traversed. Used to
-     * assist with checking unsolvability.
+     * Checks whether all paths have been traversed. Used to assist with checking unsolvability.
+     * Paths are counted by a single scan of the grid the first time this is called, and each
+     * first traversal is counted as the player moves, so later calls are constant time. It is
+     * not timed on its own: each move makes this check, so its time is part of the move's.
      *
      * @return boolean -> true if all paths have been traversed, false if not.
      */
     public boolean allPathsTraversed() {
-        for (int row = 0; row < dimensions[0]; row++) {
-            for (int col = 0; col < dimensions[1]; col++) {
-                if (componentMaze[row][col] instanceof Path path) {
-                    if (!path.isTraversedOnce()) {
-                        return false;
-                    }
-                }
+        if (pathCount < 0) {
+            pathCount = countPaths();
+        }
+        return traversedPathCount == pathCount;
+    }
+
+    /**
+     * Counts the path cells in the grid, terrain included.
+     *
+     * @return The number of cells that hold a path or terrain.
+     */
+    private long countPaths() {
+        return grid.countPaths();
+    }
+
+    /**
+     * Turns a cell into a wall. Any traversal of the cell is forgotten.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return true if the cell changed, false if it was already a wall.
+     * @throws IllegalArgumentException      If the cell is outside the maze, is the start or end
+     *                                       point, or is where the player is standing.
+     * @throws UnsupportedOperationException If the maze's grid is read-only.
+     */
+    public boolean setWall(int row, int col) throws IllegalArgumentException,
+            UnsupportedOperationException {
+        if (grid.inBounds(row, col)
+                && row == player.getPlayerRow() && col == player.getPlayerCol()) {
+            throw new IllegalArgumentException("Cannot wall in the player at (" + row + ", "
+                    + col + ").");
+        }
+        return setCell(row, col, MazeGrid.WALL);
+    }
+
+    /**
+     * Turns a cell into an untraversed path.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return true if the cell changed, false if it was already a path.
+     * @throws IllegalArgumentException      If the cell is outside the maze or is the start or
+     *                                       end point.
+     * @throws UnsupportedOperationException If the maze's grid is read-only.
+     */
+    public boolean setPath(int row, int col) throws IllegalArgumentException,
+            UnsupportedOperationException {
+        return setCell(row, col, MazeGrid.PATH);
+    }
+
+    /**
+     * Changes a cell's character, dropping its component so it is recreated to match, keeping
+     * the path counts in step and notifying the edit listener.
+     *
+     * @param row  Row of the cell.
+     * @param col  Column of the cell.
+     * @param cell The new character.
+     * @return true if the cell changed.
+     * @throws IllegalArgumentException If the cell is outside the maze or is the start or end
+     *                                  point.
+     */
+    private boolean setCell(int row, int col, char cell) throws IllegalArgumentException {
+        if (!grid.inBounds(row, col)) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col
+                    + ") is outside the maze.");
+        }
+        char old = grid.getCell(row, col);
+        if (old == MazeGrid.START || old == MazeGrid.END) {
+            throw new IllegalArgumentException("Cannot change the start or end point.");
+        }
+        if (old == cell) {
+            return false;
+        }
+        grid.setCell(row, col, cell);
+        MazeComponent removed = components.remove(indexOf(row, col));
+        if (removed instanceof Path && removed.isTraversedOnce()) {
+            traversedPathCount--;
+        }
+        if (pathCount >= 0) {
+            if (MazeGrid.isPath(old)) {
+                pathCount--;
             }
+            if (MazeGrid.isPath(cell)) {
+                pathCount++;
+            }
+        }
+        if (editListener != null) {
+            editListener.cellChanged(row, col, old, cell);
         }
-        return true; // All Path instances have been traversed.
+        return true;
     }
 
     /**
-     * Returns the instance of maze component that exists at the requested coordinate.
+     * Returns the instance of maze component that exists at the requested coordinate, creating it
+     * on first request. Later requests for the same coordinate return the same instance.
      *
      * @param row Row of requested component.
      * @param col Column of requested component.
-     * @return MazeComponent object.
+     * @return MazeComponent object, or null if the cell has no component.
+     * @throws IndexOutOfBoundsException If the coordinate is outside the maze.
+     */
+    public MazeComponent getComponentAt(int row, int col) throws IndexOutOfBoundsException {
+        long index = indexOf(row, col);
+        MazeComponent component = components.get(index);
+        if (component == null) {
+            component = createComponent(grid.getCell(row, col), row, col);
+            if (component != null) {
+                components.put(index, component);
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Returns a component that shows how a cell should be displayed, without materialising it.
+     * Cells that have been visited or requested return their own component. Every other cell
+     * returns a shared, untraversed component of the same type, which must not be modified.
+     *
+     * @param row Row of requested component.
+     * @param col Column of requested component.
+     * @return A component to display, or null if the cell has no component.
+     */
+    MazeComponent viewComponentAt(int row, int col) {
+        MazeComponent component = components.get(indexOf(row, col));
+        if (component != null) {
+            return component;
+        }
+        return prototypeOf(grid.getCell(row, col));
+    }
+
+    /**
+     * Returns the shared, untraversed component used to display cells holding a character.
+     * It must not be modified.
+     *
+     * @param element The cell's character.
+     * @return The shared component, or null if the character has no component.
+     */
+    MazeComponent prototypeOf(char element) {
+        if (element >= prototypes.length) {
+            return null;
+        }
+        if (prototypes[element] == null) {
+            prototypes[element] = createComponent(element, 0, 0);
+        }
+        return prototypes[element];
+    }
+
+    /**
+     * Gets the number of MazeComponent instances that have been created so far.
+     *
+     * @return The number of materialised cells.
+     */
+    public int getMaterialisedCount() {
+        return components.size();
+    }
+
+    /**
+     * Passes every materialised component to the visitor, in no particular order.
+     *
+     * @param visitor Receives each cell index and its component.
+     */
+    void forEachMaterialised(ComponentCache.Visitor visitor) {
+        components.forEach(visitor);
+    }
+
+    /**
+     * Returns the maze to its freshly built state: every traversal is cleared and the player is
+     * put back on the start point. Components other than the start and end points are dropped
+     * and will be recreated on demand.
+     */
+    void resetTraversal() {
+        components.clear();
+        startPoint.clearTraversal();
+        endPoint.clearTraversal();
+        components.put(indexOf(startPoint.getComponentRow(), startPoint.getComponentCol()),
+                startPoint);
+        components.put(indexOf(endPoint.getComponentRow(), endPoint.getComponentCol()), endPoint);
+        traversedPathCount = 0;
+        placePlayer(startPoint.getComponentRow(), startPoint.getComponentCol());
+    }
+
+    /**
+     * Marks a cell as traversed without moving the player, keeping the path count in step.
+     *
+     * @param index Row-major index of the cell.
+     * @param twice true to mark the cell as traversed twice, false to mark it traversed once.
+     * @throws IllegalArgumentException If the cell has no component.
+     */
+    void markTraversed(long index, boolean twice) throws IllegalArgumentException {
+        MazeComponent component = getComponentAt(rowOf(index), colOf(index));
+        if (component == null) {
+            throw new IllegalArgumentException("No component at cell " + index + ".");
+        }
+        if (twice) {
+            component.setTraversedTwice();
+        } else if (!component.isTraversedOnce()) {
+            component.setTraversedOnce();
+            if (component instanceof Path) {
+                traversedPathCount++;
+            }
+        }
+    }
+
+    /**
+     * Gets the row-major index of the start point.
+     *
+     * @return The start point's cell index.
+     */
+    long getStartIndex() {
+        return indexOf(startPoint.getComponentRow(), startPoint.getComponentCol());
+    }
+
+    /**
+     * Gets the row-major index of the end point.
+     *
+     * @return The end point's cell index.
+     */
+    long getEndIndex() {
+        return indexOf(endPoint.getComponentRow(), endPoint.getComponentCol());
+    }
+
+    /**
+     * Moves the player directly to a cell, bypassing move validation and traversal.
+     *
+     * @param row Row to place the player on.
+     * @param col Column to place the player on.
+     */
+    void placePlayer(int row, int col) {
+        player.incrementRow(row - player.getPlayerRow());
+        player.incrementCol(col - player.getPlayerCol());
+    }
+
+    /**
+     * Gets the raw cells this maze is built on.
+     *
+     * @return The maze's grid.
+     */
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Converts a coordinate into a row-major cell index.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return The cell index.
+     */
+    private long indexOf(int row, int col) {
+        return (long) row * dimensions[1] + col;
+    }
+
+    /**
+     * Gets the row of a row-major cell index.
+     *
+     * @param index The cell index.
+     * @return The cell's row.
+     */
+    private int rowOf(long index) {
+        return (int) (index / dimensions[1]);
+    }
+
+    /**
+     * Gets the column of a row-major cell index.
+     *
+     * @param index The cell index.
+     * @return The cell's column.
+     */
+    private int colOf(long index) {
+        return (int) (index % dimensions[1]);
+    }
+
+    /**
+     * Attaches a recorder that is given every input passed to {@link #playMaze(char)}.
+     *
+     * @param moveRecorder The recorder to attach, or null to stop recording.
+     */
+    public void setMoveRecorder(MoveRecorder moveRecorder) {
+        this.moveRecorder = moveRecorder;
+    }
+
+    /**
+     * Attaches a listener that is told of every cell changed by {@link #setWall(int, int)} and
+     * {@link #setPath(int, int)}.
+     *
+     * @param editListener The listener to attach, or null to detach.
      */
-    public MazeComponent getComponentAt(int row, int col) {
-        return componentMaze[row][col];
+    public void setEditListener(MazeEditListener editListener) {
+        this.editListener = editListener;
     }
 
     public Player getPlayer() {
@@ -0,0 +1,17 @@
+package io;
+
+/**
+ * Receives every cell change made through {@link Maze#setWall(int, int)} and
+ * {@link Maze#setPath(int, int)}, after the maze's grid has been updated.
+ */
+public interface MazeEditListener {
+    /**
+     * Called after a cell has changed.
+     *
+     * @param row     Row of the cell.
+     * @param col     Column of the cell.
+     * @param oldCell The cell's previous character.
+     * @param newCell The cell's new character.
+     */
+    void cellChanged(int row, int col, char oldCell, char newCell);
+}
@@ -2,6 +2,8 @@ package io;
 
 import exceptions.MazeUnsolvableException;
 import mazeComponents.MazeComponent;
+import metrics.Metrics;
+import metrics.Stage;
 
 import javax.swing.*;
 import java.awt.*;
@@ -9,42 +11,64 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 public class MazeGUI extends JFrame implements KeyListener {
+    private static final int FRAME_MILLIS = 16; // Caps redraws at roughly 60 per second.
+
     private final Maze maze;
+    private final InputPipeline pipeline;
+    private final Timer frameTimer;
 
     /**
      * Graphical User Interface for displaying and interacting with the maze. Is a form of JFrame
      * and implements KeyListener to get keyboard directional input.
+     * Key presses are queued and applied once per frame, so fast or repeated input is limited by
+     * move logic rather than by redrawing.
      *
      * @param maze The maze to be displayed and navigated. Instance of Maze class.
      */
     public MazeGUI(Maze maze) {
         this.maze = maze;
+        this.pipeline = new InputPipeline(maze, this::refresh);
+        this.frameTimer = new Timer(FRAME_MILLIS, e -> applyQueuedInput());
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         this.addKeyListener(this);
         this.setSize(800, 800);
         this.setLayout(new GridLayout(maze.getDimensions()[0], maze.getDimensions()[1]));
+        frameTimer.start();
     }
 
     /**
      * Overrides original KeyListener function.
-     * Receives and actions keyboard input.
-     * This function moves the player corresponding to user input, terminating the program if the
-     * maze has been solved. If it hasn't been solved and the given input corresponds to a valid
-     * move, the GUI should be redrawn with the maze and player's updated state.
+     * Receives keyboard input and queues it to be actioned on the next frame.
      *
      * @param keyInput the keyboard event to be processed.
      */
     @Override
     public void keyPressed(KeyEvent keyInput) {
+        pipeline.submit(keyInput.getKeyChar());
+    }
+
+    /**
+     * Actions every input queued since the last frame.
+     * This function moves the player corresponding to user input, terminating the program if the
+     * maze has been solved. If any input was actioned, the GUI is redrawn once with the maze and
+     * player's updated state.
+     */
+    private void applyQueuedInput() {
         try {
-            maze.playMaze(keyInput.getKeyChar());
+            pipeline.drain();
         } catch (MazeUnsolvableException e) {
             throw new RuntimeException(e);
         }
         if (maze.hasBeenSolved()) {
+            frameTimer.stop();
             this.dispose();
         }
-        // Remove old content then redraw.
+    }
+
+    /**
+     * Removes the old content then redraws the maze.
+     */
+    private void refresh() {
         this.getContentPane().removeAll();
         redraw();
         this.revalidate();
@@ -63,23 +87,25 @@ public class MazeGUI extends JFrame implements KeyListener {
      * @throws IllegalArgumentException If a maze component is null.
      */
     public void redraw() throws IllegalArgumentException {
+        long start = Metrics.start();
         for (int row = 0; row < maze.getDimensions()[0]; row++) {
             for (int col = 0; col < maze.getDimensions()[1]; col++) {
-                Color colour;
+                int colour;
                 if (row == maze.getPlayer().getPlayerRow()
                         && col == maze.getPlayer().getPlayerCol()) {
-                    colour = maze.getPlayer().getGuiColour();
+                    colour = maze.getPlayer().getGuiRgb();
                 } else {
-                    MazeComponent component = maze.getComponentAt(row, col);
+                    MazeComponent component = maze.viewComponentAt(row, col);
                     if (component == null) {
                         throw new IllegalArgumentException("Maze component is null.");
                     }
-                    colour = component.getGuiColour();
+                    colour = component.getGuiRgb();
                 }
                 JPanel panel = new JPanel();
-                panel.setBackground(colour);
+                panel.setBackground(new Color(colour));
                 this.add(panel);
             }
         }
+        Metrics.stop(Stage.RENDER, start);
     }
 }
\ No newline at end of file
@@ -0,0 +1,450 @@
+package io;
+
+import grid.MazeGrid;
+import mazeComponents.MazeComponent;
+import metrics.Metrics;
+import metrics.Stage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Draws mazes as images without a display, in the colours {@link MazeGUI} uses.
+ * <p>
+ * A maze uses only a handful of colours, so images are palette-indexed: one byte per pixel in
+ * memory and as few as one bit per pixel in the PNG. Cells are drawn in bands of rows. The rows of
+ * a band are rasterised in parallel into the band's shared {@link BufferedImage} raster, and
+ * while one band is being compressed the next is already being drawn. PNG output is written band
+ * by band, so only two bands are ever held in memory and the size of the maze is limited by the
+ * PNG format rather than the heap.
+ * </p>
+ * <p>
+ * Untraversed cells take the colour of their component type. Optional overlays are drawn on
+ * top, in order: the traversal state of every visited cell (cyan once, blue twice), a solution
+ * path, and the player, both in the player's colour. Cells whose character has no component are
+ * drawn black.
+ * </p>
+ */
+public class MazeImageExporter {
+    private static final int BAND_PIXELS = 1 << 24; // 16 MB of raster per band.
+    private static final int IDAT_SIZE = 1 << 16;
+    private static final byte[] PNG_SIGNATURE =
+            {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int NO_COMPONENT_RGB = 0x000000;
+    // Overlay entries pack the cell index, then the layer, then an 8-bit colour index.
+    private static final int LAYER_SHIFT = 8;
+    private static final int INDEX_SHIFT = 10;
+    private static final int TRAVERSAL_LAYER = 0;
+    private static final int PATH_LAYER = 1;
+    private static final int PLAYER_LAYER = 2;
+
+    private final int cellSize;
+    private final boolean showTraversal;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param cellSize      Width and height of each cell in pixels.
+     * @param showTraversal Whether to draw visited cells and the player.
+     * @throws IllegalArgumentException If the cell size is not positive.
+     */
+    public MazeImageExporter(int cellSize, boolean showTraversal)
+            throws IllegalArgumentException {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive.");
+        }
+        this.cellSize = cellSize;
+        this.showTraversal = showTraversal;
+    }
+
+    /**
+     * Draws a maze into a single image.
+     *
+     * @param maze         The maze to draw.
+     * @param solutionPath Row-major cell indices to highlight, such as
+     *                     {@link solver.Solution#getPath()}, or null.
+     * @return The image, palette-indexed.
+     * @throws IllegalArgumentException If the image would have too many pixels for one raster.
+     */
+    public BufferedImage render(Maze maze, long[] solutionPath) throws IllegalArgumentException {
+        long start = Metrics.start();
+        int[] dimensions = maze.getDimensions();
+        if ((long) dimensions[0] * dimensions[1] * cellSize * cellSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large for one image; use writePng.");
+        }
+        ColourTable colours = new ColourTable(maze);
+        long[] overlay = overlay(maze, solutionPath, colours);
+        BufferedImage image = renderBand(maze, colours.toColourModel(), colours, overlay, 0,
+                dimensions[0]);
+        Metrics.stop(Stage.RENDER, start);
+        return image;
+    }
+
+    /**
+     * Draws a maze and writes it as a PNG file.
+     *
+     * @param maze         The maze to draw.
+     * @param solutionPath Row-major cell indices to highlight, or null.
+     * @param filename     The path of the file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writePng(Maze maze, long[] solutionPath, String filename) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filename))) {
+            writePng(maze, solutionPath, out);
+        }
+    }
+
+    /**
+     * Draws a maze and streams it as a PNG image, one band at a time.
+     *
+     * @param maze         The maze to draw.
+     * @param solutionPath Row-major cell indices to highlight, or null.
+     * @param out          Where the PNG is written. Not closed.
+     * @throws IOException              If the image cannot be written.
+     * @throws IllegalArgumentException If the image is wider or taller than PNG allows.
+     */
+    public void writePng(Maze maze, long[] solutionPath, OutputStream out) throws IOException,
+            IllegalArgumentException {
+        long start = Metrics.start();
+        int[] dimensions = maze.getDimensions();
+        long width = (long) dimensions[1] * cellSize;
+        long height = (long) dimensions[0] * cellSize;
+        if (width > Integer.MAX_VALUE - 8 || height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image too large for PNG: " + width + "x"
+                    + height);
+        }
+        ColourTable colours = new ColourTable(maze);
+        long[] overlay = overlay(maze, solutionPath, colours);
+        IndexColorModel model = colours.toColourModel();
+        int bandRows = (int) Math.max(1, Math.min(dimensions[0],
+                BAND_PIXELS / (width * cellSize)));
+
+        PngWriter png = new PngWriter(out, (int) width, (int) height, colours);
+        try {
+            CompletableFuture<BufferedImage> next = CompletableFuture.supplyAsync(
+                    () -> renderBand(maze, model, colours, overlay, 0, bandRows));
+            for (int firstRow = 0; firstRow < dimensions[0]; firstRow += bandRows) {
+                BufferedImage band = next.get();
+                int following = firstRow + bandRows;
+                if (following < dimensions[0]) {
+                    next = CompletableFuture.supplyAsync(() -> renderBand(maze, model, colours,
+                            overlay, following, Math.min(following + bandRows, dimensions[0])));
+                }
+                png.writeRows(band);
+            }
+            png.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Rendering failed.", e.getCause());
+        } finally {
+            png.end();
+            Metrics.stop(Stage.RENDER, start);
+        }
+    }
+
+    /**
+     * Gathers the cells drawn over the base colours, sorted by cell index and then by layer, so
+     * a cell in several overlays ends up in the colour of the highest layer.
+     *
+     * @param maze         The maze being drawn.
+     * @param solutionPath Cell indices to highlight, or null.
+     * @param colours      The image's colours, extended with any the overlays use.
+     * @return The sorted overlay entries.
+     */
+    private long[] overlay(Maze maze, long[] solutionPath, ColourTable colours) {
+        long[][] entries = {new long[16]};
+        int[] count = {0};
+        if (showTraversal) {
+            maze.forEachMaterialised((index, component) -> {
+                if (component.isTraversedOnce() || component.isTraversedTwice()) {
+                    count[0] = append(entries, count[0], index, TRAVERSAL_LAYER,
+                            colours.indexOf(component.getGuiRgb()));
+                }
+            });
+        }
+        int pathColour = colours.indexOf(maze.getPlayer().getGuiRgb());
+        if (solutionPath != null) {
+            for (long index : solutionPath) {
+                count[0] = append(entries, count[0], index, PATH_LAYER, pathColour);
+            }
+        }
+        if (showTraversal) {
+            long playerIndex = (long) maze.getPlayer().getPlayerRow() * maze.getDimensions()[1]
+                    + maze.getPlayer().getPlayerCol();
+            count[0] = append(entries, count[0], playerIndex, PLAYER_LAYER, pathColour);
+        }
+        long[] sorted = Arrays.copyOf(entries[0], count[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static int append(long[][] entries, int count, long index, int layer, int colour) {
+        if (count == entries[0].length) {
+            entries[0] = Arrays.copyOf(entries[0], count * 2);
+        }
+        entries[0][count] = (index << INDEX_SHIFT) | ((long) layer << LAYER_SHIFT) | colour;
+        return count + 1;
+    }
+
+    /**
+     * Rasterises a band of cell rows, in parallel across rows, then draws the overlay entries
+     * that fall inside it.
+     *
+     * @param maze    The maze being drawn.
+     * @param model   The image's colour model.
+     * @param colours The image's colours.
+     * @param overlay Sorted overlay entries.
+     * @param from    First cell row of the band.
+     * @param to      Cell row after the band.
+     * @return The band's pixels.
+     */
+    private BufferedImage renderBand(Maze maze, IndexColorModel model, ColourTable colours,
+                                     long[] overlay, int from, int to) {
+        int cols = maze.getDimensions()[1];
+        int width = cols * cellSize;
+        BufferedImage band = new BufferedImage(width, (to - from) * cellSize,
+                BufferedImage.TYPE_BYTE_INDEXED, model);
+        byte[] pixels = ((DataBufferByte) band.getRaster().getDataBuffer()).getData();
+        byte[] byCharacter = colours.byCharacter;
+        MazeGrid grid = maze.getGrid();
+
+        IntStream.range(from, to).parallel().forEach(row -> {
+            int offset = (row - from) * cellSize * width;
+            for (int col = 0; col < cols; col++) {
+                char element = grid.getCell(row, col);
+                byte colour = element < byCharacter.length ? byCharacter[element]
+                        : colours.noComponent;
+                if (cellSize == 1) {
+                    pixels[offset + col] = colour;
+                } else {
+                    Arrays.fill(pixels, offset + col * cellSize, offset + (col + 1) * cellSize,
+                            colour);
+                }
+            }
+            for (int line = 1; line < cellSize; line++) {
+                System.arraycopy(pixels, offset, pixels, offset + line * width, width);
+            }
+        });
+
+        // Find the first entry in the band, then draw entries until one falls below it.
+        long firstKey = ((long) from * cols) << INDEX_SHIFT;
+        int low = 0;
+        int high = overlay.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (overlay[middle] < firstKey) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < overlay.length; i++) {
+            long index = overlay[i] >>> INDEX_SHIFT;
+            int row = (int) (index / cols);
+            if (row >= to) {
+                break;
+            }
+            int x = (int) (index % cols) * cellSize;
+            int y = (row - from) * cellSize;
+            for (int line = 0; line < cellSize; line++) {
+                int offset = (y + line) * width + x;
+                Arrays.fill(pixels, offset, offset + cellSize, (byte) overlay[i]);
+            }
+        }
+        return band;
+    }
+
+    /**
+     * The distinct colours of an image, at most 256, and the colour of each cell character.
+     */
+    private static class ColourTable {
+        private final int[] rgbs = new int[256];
+        private final byte[] byCharacter = new byte[128];
+        private final byte noComponent;
+        private int size;
+
+        /**
+         * Looks up the colour of every cell character once, so workers never touch components.
+         *
+         * @param maze The maze being drawn.
+         */
+        ColourTable(Maze maze) {
+            noComponent = (byte) indexOf(NO_COMPONENT_RGB);
+            for (char element = 0; element < byCharacter.length; element++) {
+                MazeComponent prototype = maze.prototypeOf(element);
+                byCharacter[element] = prototype == null ? noComponent
+                        : (byte) indexOf(prototype.getGuiRgb());
+            }
+        }
+
+        /**
+         * Gets the palette index of a colour, adding it if it is new.
+         *
+         * @param rgb The colour; any alpha is ignored.
+         * @return The colour's index.
+         * @throws IllegalStateException If the image would need more than 256 colours.
+         */
+        int indexOf(int rgb) throws IllegalStateException {
+            rgb &= 0xFFFFFF;
+            for (int i = 0; i < size; i++) {
+                if (rgbs[i] == rgb) {
+                    return i;
+                }
+            }
+            if (size == rgbs.length) {
+                throw new IllegalStateException("More than 256 colours in maze image.");
+            }
+            rgbs[size] = rgb;
+            return size++;
+        }
+
+        /**
+         * Gets the fewest bits per pixel that can index every colour.
+         *
+         * @return 1, 2, 4 or 8.
+         */
+        int bitDepth() {
+            return size <= 2 ? 1 : size <= 4 ? 2 : size <= 16 ? 4 : 8;
+        }
+
+        IndexColorModel toColourModel() {
+            byte[] red = new byte[size];
+            byte[] green = new byte[size];
+            byte[] blue = new byte[size];
+            for (int i = 0; i < size; i++) {
+                red[i] = (byte) (rgbs[i] >>> 16);
+                green[i] = (byte) (rgbs[i] >>> 8);
+                blue[i] = (byte) rgbs[i];
+            }
+            return new IndexColorModel(8, size, red, green, blue);
+        }
+    }
+
+    /**
+     * A minimal streaming PNG encoder for palette-indexed images.
+     */
+    private static class PngWriter {
+        private final DataOutputStream out;
+        private final int bitDepth;
+        private final byte[] scanline;
+        private final byte[] compressed = new byte[IDAT_SIZE];
+        private final CRC32 crc = new CRC32();
+        private final Deflater deflater;
+
+        PngWriter(OutputStream out, int width, int height, ColourTable colours)
+                throws IOException {
+            this.out = new DataOutputStream(out);
+            this.bitDepth = colours.bitDepth();
+            this.out.write(PNG_SIGNATURE);
+            byte[] header = new byte[13];
+            writeInt(header, 0, width);
+            writeInt(header, 4, height);
+            header[8] = (byte) bitDepth;
+            header[9] = 3; // Colour type: palette-indexed.
+            writeChunk("IHDR", header, header.length);
+            byte[] palette = new byte[3 * colours.size];
+            for (int i = 0; i < colours.size; i++) {
+                palette[3 * i] = (byte) (colours.rgbs[i] >>> 16);
+                palette[3 * i + 1] = (byte) (colours.rgbs[i] >>> 8);
+                palette[3 * i + 2] = (byte) colours.rgbs[i];
+            }
+            writeChunk("PLTE", palette, palette.length);
+            // Filter type 0, then the packed row.
+            this.scanline = new byte[1 + (int) (((long) width * bitDepth + 7) / 8)];
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+
+        /**
+         * Packs and compresses every pixel row of a band.
+         *
+         * @param band The band's pixels, one palette index per byte.
+         * @throws IOException If the stream cannot be written.
+         */
+        void writeRows(BufferedImage band) throws IOException {
+            byte[] pixels = ((DataBufferByte) band.getRaster().getDataBuffer()).getData();
+            int width = band.getWidth();
+            int perByte = 8 / bitDepth;
+            for (int y = 0; y < band.getHeight(); y++) {
+                int offset = y * width;
+                if (bitDepth == 8) {
+                    System.arraycopy(pixels, offset, scanline, 1, width);
+                } else {
+                    for (int x = 0, b = 1; x < width; b++) {
+                        int packed = 0;
+                        for (int i = 0; i < perByte; i++, x++) {
+                            packed <<= bitDepth;
+                            if (x < width) {
+                                packed |= pixels[offset + x];
+                            }
+                        }
+                        scanline[b] = (byte) packed;
+                    }
+                }
+                deflater.setInput(scanline);
+                while (!deflater.needsInput()) {
+                    flush(deflater.deflate(compressed));
+                }
+            }
+        }
+
+        /**
+         * Completes the compressed data and writes the end of the image.
+         *
+         * @throws IOException If the stream cannot be written.
+         */
+        void finish() throws IOException {
+            deflater.finish();
+            while (!deflater.finished()) {
+                flush(deflater.deflate(compressed));
+            }
+            writeChunk("IEND", compressed, 0);
+            out.flush();
+        }
+
+        /**
+         * Releases the compressor.
+         */
+        void end() {
+            deflater.end();
+        }
+
+        private void flush(int length) throws IOException {
+            if (length > 0) {
+                writeChunk("IDAT", compressed, length);
+            }
+        }
+
+        private void writeChunk(String type, byte[] data, int length) throws IOException {
+            byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+            out.writeInt(length);
+            out.write(typeBytes);
+            out.write(data, 0, length);
+            crc.reset();
+            crc.update(typeBytes);
+            crc.update(data, 0, length);
+            out.writeInt((int) crc.getValue());
+        }
+
+        private static void writeInt(byte[] buffer, int offset, int value) {
+            buffer[offset] = (byte) (value >>> 24);
+            buffer[offset + 1] = (byte) (value >>> 16);
+            buffer[offset + 2] = (byte) (value >>> 8);
+            buffer[offset + 3] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A checkpoint of an in-progress {@link Maze}: the player's position and which cells have been
+ * traversed once or twice.
+ * <p>
+ * A snapshot is a delta against the freshly built maze, so it only records what has changed.
+ * Capturing visits only the cells the maze has materialised, and restoring only touches the
+ * recorded cells, so both scale with how much of the maze has been explored rather than its
+ * size. The cells themselves are not stored; a snapshot is restored onto a maze built from the
+ * same file.
+ * </p>
+ * <p>
+ * Binary format: the magic number, a version byte, the maze's rows, columns, start and end cell
+ * indices, the player's row and column, then two sparse bitsets (traversed once, traversed
+ * twice). A sparse bitset is the number of non-zero 64-bit words followed by, for each word, the
+ * gap from the previous word index as an unsigned LEB128 varint and the word itself.
+ * </p>
+ */
+public final class MazeSnapshot {
+    private static final int MAGIC = 0x4D5A534E; // "MZSN".
+    private static final int VERSION = 1;
+
+    private final int rows;
+    private final int cols;
+    private final long startIndex;
+    private final long endIndex;
+    private final int playerRow;
+    private final int playerCol;
+    private final long[] onceCells;
+    private final long[] twiceCells;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param rows       Rows in the maze.
+     * @param cols       Columns in the maze.
+     * @param startIndex Cell index of the start point.
+     * @param endIndex   Cell index of the end point.
+     * @param playerRow  Row of the player.
+     * @param playerCol  Column of the player.
+     * @param onceCells  Sorted indices of cells traversed once.
+     * @param twiceCells Sorted indices of cells traversed twice.
+     */
+    private MazeSnapshot(int rows, int cols, long startIndex, long endIndex, int playerRow,
+                         int playerCol, long[] onceCells, long[] twiceCells) {
+        this.rows = rows;
+        this.cols = cols;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.playerRow = playerRow;
+        this.playerCol = playerCol;
+        this.onceCells = onceCells;
+        this.twiceCells = twiceCells;
+    }
+
+    /**
+     * Captures the current state of a maze.
+     *
+     * @param maze The maze to capture.
+     * @return A snapshot of the maze's player and traversal state.
+     */
+    public static MazeSnapshot capture(Maze maze) {
+        CellList once = new CellList();
+        CellList twice = new CellList();
+        maze.forEachMaterialised((index, component) -> {
+            if (component.isTraversedOnce()) {
+                once.add(index);
+            }
+            if (component.isTraversedTwice()) {
+                twice.add(index);
+            }
+        });
+        Player player = maze.getPlayer();
+        return new MazeSnapshot(maze.getDimensions()[0], maze.getDimensions()[1],
+                maze.getStartIndex(), maze.getEndIndex(), player.getPlayerRow(),
+                player.getPlayerCol(), once.toSortedArray(), twice.toSortedArray());
+    }
+
+    /**
+     * Restores this snapshot onto a maze, discarding whatever state the maze had.
+     *
+     * @param maze A maze built from the same cells as the captured one.
+     * @throws IllegalArgumentException If the maze's size or start and end points differ from
+     *                                  the captured maze, or the player or a traversed cell is
+     *                                  not traversable in it. The maze is left unchanged.
+     */
+    public void restore(Maze maze) throws IllegalArgumentException {
+        if (maze.getDimensions()[0] != rows || maze.getDimensions()[1] != cols
+                || maze.getStartIndex() != startIndex || maze.getEndIndex() != endIndex
+                || !maze.validMove(playerRow, playerCol)) {
+            throw new IllegalArgumentException("Snapshot was taken from a different maze.");
+        }
+        // Check every cell before changing anything, so a bad snapshot leaves the maze intact.
+        checkTraversable(maze, onceCells);
+        checkTraversable(maze, twiceCells);
+        maze.resetTraversal();
+        for (long index : onceCells) {
+            maze.markTraversed(index, false);
+        }
+        for (long index : twiceCells) {
+            maze.markTraversed(index, true);
+        }
+        maze.placePlayer(playerRow, playerCol);
+    }
+
+    /**
+     * Checks that every recorded cell lies inside the maze and can be traversed.
+     *
+     * @param maze  The maze being restored.
+     * @param cells Indices of recorded cells.
+     * @throws IllegalArgumentException If any of the cells cannot be traversed.
+     */
+    private void checkTraversable(Maze maze, long[] cells) throws IllegalArgumentException {
+        for (long index : cells) {
+            if (index < 0 || index >= (long) rows * cols
+                    || !maze.validMove((int) (index / cols), (int) (index % cols))) {
+                throw new IllegalArgumentException("Snapshot marks cell " + index
+                        + ", which cannot be traversed in this maze.");
+            }
+        }
+    }
+
+    /**
+     * Writes this snapshot in its binary format.
+     *
+     * @param out Stream to write to. Flushed but not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(VERSION);
+        dataOut.writeInt(rows);
+        dataOut.writeInt(cols);
+        dataOut.writeLong(startIndex);
+        dataOut.writeLong(endIndex);
+        dataOut.writeInt(playerRow);
+        dataOut.writeInt(playerCol);
+        writeBits(dataOut, onceCells);
+        writeBits(dataOut, twiceCells);
+        dataOut.flush();
+    }
+
+    /**
+     * Reads a snapshot previously written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in Stream to read from. Not closed.
+     * @return The snapshot that was read.
+     * @throws IOException If the stream cannot be read or does not hold a snapshot.
+     */
+    public static MazeSnapshot readFrom(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("Not a maze snapshot.");
+        }
+        int version = dataIn.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ".");
+        }
+        int rows = dataIn.readInt();
+        int cols = dataIn.readInt();
+        long startIndex = dataIn.readLong();
+        long endIndex = dataIn.readLong();
+        int playerRow = dataIn.readInt();
+        int playerCol = dataIn.readInt();
+        if (rows <= 0 || cols <= 0 || playerRow < 0 || playerRow >= rows || playerCol < 0
+                || playerCol >= cols) {
+            throw new IOException("Corrupt snapshot header.");
+        }
+        long cells = (long) rows * cols;
+        long[] onceCells = readBits(dataIn, cells);
+        long[] twiceCells = readBits(dataIn, cells);
+        return new MazeSnapshot(rows, cols, startIndex, endIndex, playerRow, playerCol,
+                onceCells, twiceCells);
+    }
+
+    /**
+     * Encodes this snapshot into a byte array.
+     *
+     * @return The binary form of the snapshot.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen for an in-memory stream.
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot from a byte array produced by {@link #toBytes()}.
+     *
+     * @param bytes The binary form of a snapshot.
+     * @return The decoded snapshot.
+     * @throws IOException If the bytes do not hold a snapshot.
+     */
+    public static MazeSnapshot fromBytes(byte[] bytes) throws IOException {
+        return readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Gets the row the player was on.
+     *
+     * @return The player's row.
+     */
+    public int getPlayerRow() {
+        return playerRow;
+    }
+
+    /**
+     * Gets the column the player was on.
+     *
+     * @return The player's column.
+     */
+    public int getPlayerCol() {
+        return playerCol;
+    }
+
+    /**
+     * Gets the number of cells that had been traversed at least once.
+     *
+     * @return The traversed cell count.
+     */
+    public int getTraversedCount() {
+        return onceCells.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MazeSnapshot snapshot && snapshot.rows == rows
+                && snapshot.cols == cols && snapshot.startIndex == startIndex
+                && snapshot.endIndex == endIndex && snapshot.playerRow == playerRow
+                && snapshot.playerCol == playerCol && Arrays.equals(snapshot.onceCells, onceCells)
+                && Arrays.equals(snapshot.twiceCells, twiceCells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(startIndex) + playerRow * 31 + playerCol)
+                + Arrays.hashCode(onceCells) + 17 * Arrays.hashCode(twiceCells);
+    }
+
+    /**
+     * Writes sorted cell indices as a sparse bitset of non-zero 64-bit words.
+     *
+     * @param out   Stream to write to.
+     * @param cells Sorted cell indices.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeBits(DataOutputStream out, long[] cells) throws IOException {
+        int words = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (i == 0 || cells[i] >>> 6 != cells[i - 1] >>> 6) {
+                words++;
+            }
+        }
+        writeVarint(out, words);
+        long previousWord = 0;
+        int i = 0;
+        while (i < cells.length) {
+            long wordIndex = cells[i] >>> 6;
+            long word = 0;
+            while (i < cells.length && cells[i] >>> 6 == wordIndex) {
+                word |= 1L << (cells[i] & 63);
+                i++;
+            }
+            writeVarint(out, wordIndex - previousWord);
+            out.writeLong(word);
+            previousWord = wordIndex;
+        }
+    }
+
+    /**
+     * Reads a sparse bitset back into sorted cell indices.
+     *
+     * @param in    Stream to read from.
+     * @param cells Number of cells in the maze, used to reject corrupt input.
+     * @return Sorted cell indices.
+     * @throws IOException If the stream cannot be read or the bitset is corrupt.
+     */
+    private static long[] readBits(DataInputStream in, long cells) throws IOException {
+        long words = readVarint(in);
+        if (words > (cells + 63) / 64) {
+            throw new IOException("Corrupt snapshot bitset.");
+        }
+        CellList list = new CellList();
+        long wordIndex = 0;
+        for (long w = 0; w < words; w++) {
+            wordIndex += readVarint(in);
+            long word = in.readLong();
+            while (word != 0) {
+                long index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                if (index >= cells) {
+                    throw new IOException("Corrupt snapshot bitset.");
+                }
+                list.add(index);
+                word &= word - 1;
+            }
+        }
+        return list.toSortedArray();
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint.
+     *
+     * @param out   Stream to write to.
+     * @param value Non-negative value.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @param in Stream to read from.
+     * @return The value read.
+     * @throws IOException If the stream cannot be read or the varint is too long.
+     */
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int next = in.readUnsignedByte();
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt snapshot varint.");
+    }
+
+    /**
+     * A growable list of cell indices.
+     */
+    private static class CellList {
+        private long[] cells = new long[16];
+        private int size;
+
+        /**
+         * Appends a cell index.
+         *
+         * @param index The cell index.
+         */
+        void add(long index) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            cells[size++] = index;
+        }
+
+        /**
+         * Copies the indices into a sorted array.
+         *
+         * @return The sorted indices.
+         */
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(cells, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package io;
 
-import java.awt.Color;
-
 public class Player {
     private int playerRow;
     private int playerCol;
-    private final Color guiColour = Color.GREEN;
+    private static final int GUI_RGB = 0x00FF00; // Green.
 
     /**
      * The avatar that the user navigates the maze with.
@@ -64,11 +62,11 @@ public class Player {
     }
 
     /**
-     * Gets the GUI color associated with the player.
+     * Gets the GUI colour associated with the player.
      *
-     * @return The GUI color.
+     * @return The GUI colour, as 0xRRGGBB.
      */
-    public Color getGuiColour() {
-        return guiColour;
+    public int getGuiRgb() {
+        return GUI_RGB;
     }
 }
\ No newline at end of file
@@ -0,0 +1,287 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.TerrainType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Validates maze data one chunk at a time, and optionally records a bitmap of traversable
+ * cells, the start and end points and the number of path cells in the same pass.
+ * <p>
+ * Most of a maze is walls and paths, so the scanner reads eight bytes at a time as a long and
+ * checks all of them at once with SWAR (SIMD within a register) byte compares. A word made only
+ * of '#', ' ', '.' and terrain that lies inside the current row is accepted whole; terrain is only
+ * compared for once a word fails the cheaper wall, path and dot check. Any other word, holding
+ * a start or end point, a newline, an invalid character or a row end, falls back to the scalar
+ * check one byte at a time, so errors are found at the same byte, with the same exception, as a
+ * purely scalar scan.
+ * </p>
+ */
+class RowScanner {
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long WALLS = 0x2323232323232323L;
+    private static final long PATHS = 0x2020202020202020L;
+    private static final long DOTS = 0x2E2E2E2E2E2E2E2EL;
+    private static final long[] TERRAIN = terrainPatterns();
+    // Gathers the high bit of each byte, shifted down to bit 0, into the top byte in order.
+    private static final long GATHER = 0x0102040810204080L;
+
+    private final int expectedRows;
+    private final int expectedColumns;
+    private final long[] traversable;
+    private int currentRow;
+    private int currentCol;
+    private long startIndex = -1;
+    private long endIndex = -1;
+    private long pathCount;
+
+    /**
+     * Creates a scanner that only validates.
+     *
+     * @param expectedRows    Number of rows given by the header.
+     * @param expectedColumns Number of columns given by the header.
+     */
+    RowScanner(int expectedRows, int expectedColumns) {
+        this(expectedRows, expectedColumns, false);
+    }
+
+    /**
+     * Creates a scanner.
+     *
+     * @param expectedRows     Number of rows given by the header.
+     * @param expectedColumns  Number of columns given by the header.
+     * @param trackTraversable Whether to record a bitmap of traversable cells.
+     */
+    RowScanner(int expectedRows, int expectedColumns, boolean trackTraversable) {
+        this.expectedRows = expectedRows;
+        this.expectedColumns = expectedColumns;
+        this.traversable = trackTraversable
+                ? new long[(int) (((long) expectedRows * expectedColumns + 63) >>> 6)] : null;
+    }
+
+    /**
+     * Checks the next bytes of maze data.
+     *
+     * @param data Buffer holding the bytes.
+     * @param from Index of the first byte to check.
+     * @param to   Index after the last byte to check.
+     * @throws MazeMalformedException     If a character is invalid or repeats the start or end
+     *                                    point.
+     * @throws MazeSizeMissmatchException If a row is too long or too short, or there are too
+     *                                    many rows.
+     */
+    void accept(byte[] data, int from, int to) throws MazeMalformedException,
+            MazeSizeMissmatchException {
+        int i = from;
+        while (i < to) {
+            if (currentRow < expectedRows) {
+                int run = Math.min(expectedColumns - currentCol, to - i);
+                while (run >= 8) {
+                    long word = (long) LONG_VIEW.get(data, i);
+                    long paths = matches(word, PATHS);
+                    long accepted = matches(word, WALLS) | paths | matches(word, DOTS);
+                    if (accepted != HIGH_BITS) {
+                        long terrain = matchesTerrain(word);
+                        if ((accepted | terrain) != HIGH_BITS) {
+                            break;
+                        }
+                        paths |= terrain; // Terrain is counted and traversed like path.
+                    }
+                    if (paths != 0) {
+                        pathCount += Long.bitCount(paths);
+                        if (traversable != null) {
+                            markTraversable(cellIndex(), ((paths >>> 7) * GATHER) >>> 56);
+                        }
+                    }
+                    i += 8;
+                    currentCol += 8;
+                    run -= 8;
+                }
+                if (i == to) {
+                    break;
+                }
+            }
+            acceptByte(data[i++]);
+        }
+    }
+
+    /**
+     * Checks a single byte of maze data.
+     *
+     * @param dataIn The byte.
+     * @throws MazeMalformedException     If the character is invalid or repeats the start or end
+     *                                    point.
+     * @throws MazeSizeMissmatchException If the byte falls outside the expected rows and columns.
+     */
+    private void acceptByte(byte dataIn) throws MazeMalformedException,
+            MazeSizeMissmatchException {
+        // \n indicates the end of a row; blank lines after the last row are ignored.
+        if (dataIn == '\n') {
+            if (currentRow < expectedRows) {
+                if (currentCol != expectedColumns) {
+                    throw new MazeSizeMissmatchException
+                            ("Specified dimensions incongruent to provided map.");
+                }
+                currentRow++;
+                currentCol = 0;
+            }
+            return;
+        }
+        boolean isTraversable = true;
+        switch (dataIn) {
+            case '#', '.' -> isTraversable = false;
+            case ' ' -> pathCount++;
+            case 'S' -> {
+                if (startIndex >= 0) { // Throws error if there already exists a start point.
+                    throw new MazeMalformedException("More than one start point.");
+                }
+                startIndex = Long.MAX_VALUE; // Position is only known valid once checked below.
+            }
+            case 'E' -> {
+                if (endIndex >= 0) { // Throws error if there already exists an end point.
+                    throw new MazeMalformedException("More than one end point.");
+                }
+                endIndex = Long.MAX_VALUE;
+            }
+            default -> {
+                if (TerrainType.of((char) (dataIn & 0xFF)) == null) {
+                    throw new MazeMalformedException("Invalid character in maze.");
+                }
+                pathCount++;
+            }
+        }
+
+        if (currentRow >= expectedRows || currentCol >= expectedColumns) {
+            throw new MazeSizeMissmatchException
+                    ("Specified dimensions incongruent to provided map.");
+        }
+        long cell = cellIndex();
+        if (dataIn == 'S') {
+            startIndex = cell;
+        } else if (dataIn == 'E') {
+            endIndex = cell;
+        }
+        if (isTraversable && traversable != null) {
+            traversable[(int) (cell >>> 6)] |= 1L << cell;
+        }
+        currentCol++;
+    }
+
+    /**
+     * Checks the data ended with every row complete and a single start and end point.
+     *
+     * @throws MazeMalformedException     If the start or end point is missing.
+     * @throws MazeSizeMissmatchException If there are too few rows or the last is short.
+     */
+    void finish() throws MazeMalformedException, MazeSizeMissmatchException {
+        boolean lastRowUnterminated = currentRow == expectedRows - 1
+                && currentCol == expectedColumns;
+        if (currentRow < expectedRows && !lastRowUnterminated) {
+            throw new MazeSizeMissmatchException
+                    ("Specified dimensions incongruent to provided map.");
+        }
+        // Maze must have a single start and end point.
+        if (startIndex < 0 || endIndex < 0) {
+            throw new MazeMalformedException("No start point or end point provided.");
+        }
+    }
+
+    /**
+     * Gets the start point found by the scan.
+     *
+     * @return The start point's cell index (row * columns + column).
+     */
+    long getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * Gets the end point found by the scan.
+     *
+     * @return The end point's cell index (row * columns + column).
+     */
+    long getEndIndex() {
+        return endIndex;
+    }
+
+    /**
+     * Gets the number of path cells seen by the scan.
+     *
+     * @return The path count.
+     */
+    long getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * Gets the bitmap of traversable cells, bit (index &amp; 63) of word (index / 64) for each
+     * cell index.
+     *
+     * @return The bitmap, or null if the scanner was not asked to record it.
+     */
+    long[] getTraversable() {
+        return traversable;
+    }
+
+    private long cellIndex() {
+        return (long) currentRow * expectedColumns + currentCol;
+    }
+
+    /**
+     * Sets up to eight consecutive bits of the traversable bitmap, which may span two words.
+     *
+     * @param cell Index of the first cell.
+     * @param bits One bit per cell, lowest first.
+     */
+    private void markTraversable(long cell, long bits) {
+        int word = (int) (cell >>> 6);
+        int shift = (int) (cell & 63);
+        traversable[word] |= bits << shift;
+        if (shift > 56) {
+            traversable[word + 1] |= bits >>> (64 - shift);
+        }
+    }
+
+    /**
+     * Finds the bytes of a word that hold any kind of terrain.
+     *
+     * @param word Eight bytes of data.
+     * @return A word with the high bit set in each terrain byte and all other bits clear.
+     */
+    private static long matchesTerrain(long word) {
+        long terrain = 0;
+        for (long pattern : TERRAIN) {
+            terrain |= matches(word, pattern);
+        }
+        return terrain;
+    }
+
+    private static long[] terrainPatterns() {
+        TerrainType[] types = TerrainType.values();
+        long[] patterns = new long[types.length];
+        for (int i = 0; i < types.length; i++) {
+            patterns[i] = (types[i].getSymbol() & 0xFFL) * 0x0101010101010101L;
+        }
+        return patterns;
+    }
+
+    /**
+     * Compares every byte of a word with the same byte of a pattern, without carries between
+     * bytes.
+     *
+     * @param word    Eight bytes of data.
+     * @param pattern The byte to look for, repeated eight times.
+     * @return A word with the high bit set in each byte that matched and all other bits clear.
+     */
+    private static long matches(long word, long pattern) {
+        long difference = word ^ pattern;
+        return ~(((difference & LOW_BITS) + LOW_BITS) | difference) & HIGH_BITS;
+    }
+}
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Runs Launcher from an AppCDS archive, so that repeated calls from scripts skip most of the
+# JVM's class loading, parsing and verification.
+#
+# The first call, and any call after the classes are recompiled, packs the compiled classes into
+# a jar (CDS only archives classes from jars), records the classes that a solve run and a
+# terminal run load, and dumps them into an archive. Later calls map the archive straight in.
+# Run from the directory holding maps/, as Launcher itself expects.
+#
+# Usage:       ./launcher.sh [Launcher arguments...]
+# Environment: MAZE_CLASSES  directory of compiled classes (default: out)
+#              MAZE_CDS_DIR  where the jar and archive are kept (default: .cds)
+#              JAVA          java executable (default: java)
+#              JAVA_OPTS     extra JVM options, e.g. -XX:TieredStopAtLevel=1 for tiny mazes
+set -e
+
+classes=${MAZE_CLASSES:-out}
+cds_dir=${MAZE_CDS_DIR:-.cds}
+java=${JAVA:-java}
+jar="$cds_dir/launcher.jar"
+archive="$cds_dir/launcher.jsa"
+
+if [ ! -f "$archive" ] || [ -n "$(find "$classes" -name '*.class' -newer "$archive" | head -n 1)" ]; then
+    mkdir -p "$cds_dir"
+    rm -f "$jar" "$archive"
+    "${JAR:-jar}" cf "$jar" -C "$classes" .
+    # Training runs: solve a maze, then print one in terminal mode with no input.
+    "$java" -Xshare:off -XX:DumpLoadedClassList="$cds_dir/solve.classlist" -cp "$jar" \
+        Launcher SOLVE SmallMap.txt > /dev/null
+    "$java" -Xshare:off -XX:DumpLoadedClassList="$cds_dir/play.classlist" -cp "$jar" \
+        Launcher SmallMap.txt < /dev/null > /dev/null
+    cat "$cds_dir/solve.classlist" "$cds_dir/play.classlist" > "$cds_dir/launcher.classlist"
+    "$java" -Xshare:dump -XX:SharedClassListFile="$cds_dir/launcher.classlist" \
+        -XX:SharedArchiveFile="$archive" -cp "$jar" > "$cds_dir/dump.log" 2>&1
+fi
+
+# shellcheck disable=SC2086 # JAVA_OPTS is a list of options.
+exec "$java" -XX:SharedArchiveFile="$archive" -Xshare:auto $JAVA_OPTS -cp "$jar" Launcher "$@"
@@ -1,7 +1,5 @@
 package mazeComponents;
 
-import java.awt.*;
-
 public class EndPoint extends MazeComponent {
     /**
      * Represents the end point of a maze.
@@ -10,6 +8,6 @@ public class EndPoint extends MazeComponent {
      * @param yPos y coordinate of this end point.
      */
     public EndPoint(int xPos, int yPos) {
-        super(xPos, yPos, "\u001B[31m█\u001B[0m", Color.red, true);
+        super(xPos, yPos, "\u001B[31m█\u001B[0m", 0xFF0000, true);
     }
 }
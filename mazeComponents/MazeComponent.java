@@ -1,46 +1,73 @@
 package mazeComponents;
 
-import java.awt.*;
-
+/**
+ * A cell of a maze, with its appearance in the terminal and the GUI.
+ * GUI colours are 0xRRGGBB ints rather than java.awt.Color, so that terminal and headless use
+ * never loads AWT; {@link io.MazeGUI} converts them when it draws.
+ */
 public class MazeComponent {
+    private static final int TRAVERSED_ONCE_RGB = 0x00FFFF; // Cyan.
+    private static final int TRAVERSED_TWICE_RGB = 0x0000FF; // Blue.
+
     private final int componentRow;
     private final int componentCol;
     protected String componentRep;
-    protected Color guiColour;
+    protected int guiRgb;
     protected boolean traversable;
     protected boolean traversedOnce = false;
+    protected boolean traversedTwice = false;
+    private final String baseRep;
+    private final int baseGuiRgb;
 
     /**
      * Initializes a new MazeComponent with the given row and column coordinates.
      *
      * @param row The row coordinate of the component.
      * @param col The column coordinate of the component.
+     * @param componentRep Terminal representation of the component.
+     * @param guiRgb       GUI colour of the component, as 0xRRGGBB.
+     * @param traversable  Whether the player can stand on the component.
      */
-    public MazeComponent(int row, int col, String componentRep, Color guiColour, boolean traversable) {
+    public MazeComponent(int row, int col, String componentRep, int guiRgb, boolean traversable) {
         this.componentRow = row;
         this.componentCol = col;
         this.componentRep = componentRep;
-        this.guiColour = guiColour;
+        this.guiRgb = guiRgb;
         this.traversable = traversable;
+        this.baseRep = componentRep;
+        this.baseGuiRgb = guiRgb;
     }
 
     /**
      * Marks the component as traversed once and updates its appearance.
+     * This replaces any traversed-twice marking, as it replaces that appearance.
      */
     public void setTraversedOnce() {
         this.traversedOnce = true;
+        this.traversedTwice = false;
         this.componentRep = "\u001B[96m█\u001B[0m";
-        this.guiColour = Color.cyan;
+        this.guiRgb = TRAVERSED_ONCE_RGB;
     }
 
     /**
      * Marks the component as traversed twice and updates its appearance.
      */
     public void setTraversedTwice() {
-        guiColour = Color.blue;
+        traversedTwice = true;
+        guiRgb = TRAVERSED_TWICE_RGB;
         componentRep = "\u001B[34m█\u001B[0m";
     }
 
+    /**
+     * Clears any traversal and restores the component's original appearance.
+     */
+    public void clearTraversal() {
+        traversedOnce = false;
+        traversedTwice = false;
+        componentRep = baseRep;
+        guiRgb = baseGuiRgb;
+    }
+
     /**
      * Gets the row coordinate of the component.
      *
@@ -87,11 +114,20 @@ public class MazeComponent {
     }
 
     /**
-     * Gets the GUI color of the component.
+     * Checks if the component has been marked as traversed twice.
+     *
+     * @return True if the component has been traversed twice, false otherwise.
+     */
+    public boolean isTraversedTwice() {
+        return traversedTwice;
+    }
+
+    /**
+     * Gets the GUI colour of the component.
      *
-     * @return The GUI color.
+     * @return The GUI colour, as 0xRRGGBB.
      */
-    public Color getGuiColour() {
-        return guiColour;
+    public int getGuiRgb() {
+        return guiRgb;
     }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package mazeComponents;
 
-import java.awt.*;
-
 public class Path extends MazeComponent {
     /**
      * Represents a traversable path of a maze.
@@ -10,6 +8,18 @@ public class Path extends MazeComponent {
      * @param yPos y coordinate of this path.
      */
     public Path(int xPos, int yPos) {
-        super(xPos, yPos, " ", Color.white, true);
+        this(xPos, yPos, " ", 0xFFFFFF);
+    }
+
+    /**
+     * Represents a traversable path with its own appearance.
+     *
+     * @param xPos         x coordinate of this path.
+     * @param yPos         y coordinate of this path.
+     * @param componentRep Terminal representation of this path.
+     * @param guiRgb       GUI colour of this path, as 0xRRGGBB.
+     */
+    protected Path(int xPos, int yPos, String componentRep, int guiRgb) {
+        super(xPos, yPos, componentRep, guiRgb, true);
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,5 @@
 package mazeComponents;
 
-import java.awt.*;
-
 public class StartPoint extends MazeComponent {
     /**
      * Represents the start point of a maze.
@@ -10,7 +8,7 @@ public class StartPoint extends MazeComponent {
      * @param yPos y coordinate of this start point.
      */
     public StartPoint(int xPos, int yPos) {
-        super(xPos, yPos, "\u001B[96m█\u001B[0m", Color.cyan, true);
+        super(xPos, yPos, "\u001B[96m█\u001B[0m", 0x00FFFF, true);
     }
 }
 
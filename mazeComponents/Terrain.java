@@ -0,0 +1,46 @@
+package mazeComponents;
+
+import grid.TerrainType;
+
+public class Terrain extends Path {
+    private final TerrainType type;
+
+    /**
+     * Represents a traversable cell of weighted terrain. Counts as a path for traversal.
+     *
+     * @param xPos x coordinate of this terrain.
+     * @param yPos y coordinate of this terrain.
+     * @param type The kind of terrain.
+     */
+    public Terrain(int xPos, int yPos, TerrainType type) {
+        super(xPos, yPos, representationOf(type), colourOf(type));
+        this.type = type;
+    }
+
+    /**
+     * Gets the kind of terrain.
+     *
+     * @return The terrain type.
+     */
+    public TerrainType getType() {
+        return type;
+    }
+
+    private static String representationOf(TerrainType type) {
+        String colour = switch (type) {
+            case GRASS, FOREST -> "\u001B[32m";
+            case SAND -> "\u001B[33m";
+            case WATER -> "\u001B[34m";
+        };
+        return colour + type.getSymbol() + "\u001B[0m";
+    }
+
+    private static int colourOf(TerrainType type) {
+        return switch (type) {
+            case GRASS -> 0x9ACD32;
+            case SAND -> 0xEEDD82;
+            case FOREST -> 0x228B22;
+            case WATER -> 0x4682B4;
+        };
+    }
+}
@@ -1,7 +1,5 @@
 package mazeComponents;
 
-import java.awt.*;
-
 public class Wall extends MazeComponent {
     /**
      * Represents an untraversable wall in a maze.
@@ -10,6 +8,6 @@ public class Wall extends MazeComponent {
      * @param yPos y coordinate of this wall.
      */
     public Wall(int xPos, int yPos) {
-        super(xPos, yPos, "█", Color.gray, false);
+        super(xPos, yPos, "█", 0x808080, false);
     }
 }
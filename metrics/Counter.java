@@ -0,0 +1,56 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count that can be updated from several threads without contention.
+ */
+public class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Creates an empty counter.
+     *
+     * @param name Name used when the counter is dumped.
+     */
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds the given amount to the counter. Does nothing when metrics are disabled.
+     *
+     * @param amount Amount to add.
+     */
+    public void add(long amount) {
+        if (Metrics.ENABLED) {
+            count.add(amount);
+        }
+    }
+
+    /**
+     * Gets the name of the counter.
+     *
+     * @return The counter's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current value of the counter.
+     *
+     * @return The sum of everything added so far.
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * Resets the counter back to zero.
+     */
+    public void reset() {
+        count.reset();
+    }
+}
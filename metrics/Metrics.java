@@ -0,0 +1,94 @@
+package metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Process-wide timings and counters for the program's hot paths.
+ * <p>
+ * Metrics are switched on with {@code -Dmaze.metrics=true}. The flag is read once into a
+ * {@code static final} field, so when it is off every call below reduces to a constant check that
+ * the JIT removes, and no clock is read and nothing is recorded.
+ * </p>
+ * <p>
+ * Typical use around a stage:
+ * <pre>
+ *     long start = Metrics.start();
+ *     ...
+ *     Metrics.stop(Stage.LOAD, start);
+ * </pre>
+ * </p>
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("maze.metrics");
+
+    public static final Counter NODES_EXPANDED = new Counter("nodesExpanded");
+    public static final Counter BYTES_READ = new Counter("bytesRead");
+
+    private static final Map<Stage, Histogram> LATENCIES = new EnumMap<>(Stage.class);
+
+    static {
+        for (Stage stage : Stage.values()) {
+            LATENCIES.put(stage, new Histogram());
+        }
+        if (ENABLED) {
+            StageEvent.registerCounters();
+        }
+    }
+
+    private Metrics() {}
+
+    /**
+     * Marks the start of a timed stage.
+     *
+     * @return The current time in nanoseconds, or 0 when metrics are disabled.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of a timed stage, recording its latency and emitting a JFR event.
+     *
+     * @param stage The stage that finished.
+     * @param start The value returned by {@link #start()} when the stage began.
+     */
+    public static void stop(Stage stage, long start) {
+        if (ENABLED) {
+            long elapsed = System.nanoTime() - start;
+            LATENCIES.get(stage).record(elapsed);
+            StageEvent.emit(stage, elapsed);
+        }
+    }
+
+    /**
+     * Gets the latency histogram of the given stage, in nanoseconds.
+     *
+     * @param stage The stage whose latencies are requested.
+     * @return The stage's histogram.
+     */
+    public static Histogram getLatency(Stage stage) {
+        return LATENCIES.get(stage);
+    }
+
+    /**
+     * Gets every counter kept by this class.
+     *
+     * @return The counters, in dump order.
+     */
+    public static Counter[] getCounters() {
+        return new Counter[]{NODES_EXPANDED, BYTES_READ};
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public static void reset() {
+        for (Histogram histogram : LATENCIES.values()) {
+            histogram.reset();
+        }
+        for (Counter counter : getCounters()) {
+            counter.reset();
+        }
+    }
+}
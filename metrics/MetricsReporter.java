@@ -0,0 +1,141 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically dumps the contents of {@link Metrics} as plain text or a single line of JSON.
+ * Reporting runs on a daemon thread so it never keeps the program alive.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ScheduledExecutorService scheduler;
+    private final PrintStream out;
+    private final boolean json;
+
+    /**
+     * Starts dumping metrics to the given stream at a fixed interval.
+     *
+     * @param out            Stream that dumps are written to.
+     * @param intervalMillis Time between dumps, in milliseconds.
+     * @param json           true to write JSON, false to write plain text.
+     * @throws IllegalArgumentException If the interval is not positive.
+     */
+    public MetricsReporter(PrintStream out, long intervalMillis, boolean json)
+            throws IllegalArgumentException {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Reporting interval must be positive.");
+        }
+        this.out = out;
+        this.json = json;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "maze-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::dump, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a reporter configured from system properties, if metrics are enabled.
+     * {@code maze.metrics.interval} sets the interval in milliseconds (default 10000), and
+     * {@code maze.metrics.format=json} switches from text to JSON. Dumps go to standard error so
+     * they do not interleave with the maze printed on standard output.
+     *
+     * @return The running reporter, or null if metrics are disabled.
+     */
+    public static MetricsReporter fromSystemProperties() {
+        if (!Metrics.ENABLED) {
+            return null;
+        }
+        long interval = Long.getLong("maze.metrics.interval", 10_000);
+        boolean json = "json".equalsIgnoreCase(System.getProperty("maze.metrics.format"));
+        return new MetricsReporter(System.err, interval, json);
+    }
+
+    /**
+     * Writes one dump immediately.
+     */
+    public void dump() {
+        out.println(json ? toJson() : toText());
+        out.flush();
+    }
+
+    /**
+     * Stops periodic reporting after writing a final dump.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        dump();
+    }
+
+    /**
+     * Formats the current metrics as human-readable text, one line per stage and counter.
+     *
+     * @return The formatted dump.
+     */
+    public static String toText() {
+        StringBuilder text = new StringBuilder("maze metrics (latencies in microseconds)\n");
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = Metrics.getLatency(stage);
+            text.append(String.format(Locale.ROOT, "  %-8s count=%d mean=%.1f",
+                    stage.getLabel(), histogram.getCount(), histogram.getMean() / 1000.0));
+            for (double percentile : PERCENTILES) {
+                text.append(String.format(Locale.ROOT, " p%s=%.1f", formatPercentile(percentile),
+                        histogram.getPercentile(percentile) / 1000.0));
+            }
+            text.append(String.format(Locale.ROOT, " max=%.1f%n", histogram.getMax() / 1000.0));
+        }
+        for (Counter counter : Metrics.getCounters()) {
+            text.append(String.format(Locale.ROOT, "  %s=%d%n", counter.getName(), counter.get()));
+        }
+        return text.toString().stripTrailing();
+    }
+
+    /**
+     * Formats the current metrics as a single-line JSON object. Latencies are in nanoseconds.
+     *
+     * @return The formatted dump.
+     */
+    public static String toJson() {
+        StringBuilder json = new StringBuilder("{\"stages\":{");
+        Stage[] stages = Stage.values();
+        for (int i = 0; i < stages.length; i++) {
+            Histogram histogram = Metrics.getLatency(stages[i]);
+            json.append(i == 0 ? "" : ",").append('"').append(stages[i].getLabel()).append("\":{")
+                    .append("\"count\":").append(histogram.getCount())
+                    .append(",\"meanNanos\":")
+                    .append(String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                json.append(",\"p").append(formatPercentile(percentile)).append("Nanos\":")
+                        .append(histogram.getPercentile(percentile));
+            }
+            json.append(",\"maxNanos\":").append(histogram.getMax()).append('}');
+        }
+        json.append("},\"counters\":{");
+        Counter[] counters = Metrics.getCounters();
+        for (int i = 0; i < counters.length; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(counters[i].getName()).append("\":")
+                    .append(counters[i].get());
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Formats a percentile for use in a key, e.g. 99.9 -> "99_9" and 50 -> "50".
+     *
+     * @param percentile The percentile.
+     * @return The key-safe form.
+     */
+    private static String formatPercentile(double percentile) {
+        String formatted = percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile) : Double.toString(percentile);
+        return formatted.replace('.', '_');
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+/**
+ * The hot-path stages of the program that are timed by {@link Metrics}.
+ */
+public enum Stage {
+    LOAD("load"),
+    BUILD("build"),
+    MOVE("move"),
+    SOLVE("solve"),
+    REPAIR("repair"),
+    ANALYSE("analyse"),
+    SIMULATE("simulate"),
+    RENDER("render");
+
+    private final String label;
+
+    /**
+     * A timed stage of the program.
+     *
+     * @param label Short lowercase name used in dumps and JFR events.
+     */
+    Stage(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the short name of this stage.
+     *
+     * @return The stage's label.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,70 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed each time a timed {@link Stage} finishes.
+ * Start a recording with {@code -XX:StartFlightRecording} (or {@code jcmd JFR.start}) to capture
+ * these alongside the periodic {@link CounterEvent}.
+ */
+@Name("maze.Stage")
+@Label("Maze Stage")
+@Category("Maze")
+@Description("Latency of a single load, build, move, solve or render stage.")
+class StageEvent extends Event {
+    @Label("Stage")
+    String stage;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    /**
+     * Commits a stage event if JFR is recording it.
+     *
+     * @param stage   The stage that finished.
+     * @param latency How long the stage took, in nanoseconds.
+     */
+    static void emit(Stage stage, long latency) {
+        StageEvent event = new StageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.getLabel();
+            event.latency = latency;
+            event.commit();
+        }
+    }
+
+    /**
+     * Registers {@link CounterEvent} as a periodic JFR event.
+     */
+    static void registerCounters() {
+        FlightRecorder.addPeriodicEvent(CounterEvent.class, () -> {
+            CounterEvent event = new CounterEvent();
+            event.nodesExpanded = Metrics.NODES_EXPANDED.get();
+            event.bytesRead = Metrics.BYTES_READ.get();
+            event.commit();
+        });
+    }
+
+    /**
+     * JFR event carrying the current value of each {@link Counter}, sampled once a second.
+     */
+    @Name("maze.Counters")
+    @Label("Maze Counters")
+    @Category("Maze")
+    @Period("1 s")
+    static class CounterEvent extends Event {
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+
+        @Label("Bytes Read")
+        long bytesRead;
+    }
+}
@@ -0,0 +1,326 @@
+package replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * An immutable, compact recording of a player's directional inputs.
+ * <p>
+ * Each move is stored as a 2-bit direction code. Moves are grouped into chunks, each starting
+ * with a single tag byte:
+ * - {@code 0nnnnnnn}: a literal chunk of n + 1 moves (1 to 128), packed four to a byte.
+ * - {@code 1ddxxxxx}: a run of one direction d, repeated {@value #MIN_RUN} + x times. When x is
+ *   31 the rest of the length follows as an unsigned LEB128 varint.
+ * </p>
+ * <p>
+ * On disk a log is the magic number, a format version, the move count and the encoded chunks.
+ * </p>
+ */
+public final class MoveLog {
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    static final int MIN_RUN = 8;
+    static final int MAX_LITERAL = 128;
+    static final int RUN_FLAG = 0x80;
+    static final int INLINE_RUN_LIMIT = 31;
+
+    private static final int MAGIC = 0x4D5A4D4C; // "MZML".
+    private static final int VERSION = 1;
+    private static final char[] INPUTS = {'w', 's', 'a', 'd'};
+    private static final int[] ROW_CHANGE = {-1, 1, 0, 0};
+    private static final int[] COL_CHANGE = {0, 0, -1, 1};
+
+    private final byte[] data;
+    private final long moveCount;
+
+    /**
+     * Wraps already-encoded chunks. Use {@link MoveRecorder} to build a log.
+     *
+     * @param data      Encoded chunks. Not copied.
+     * @param moveCount Number of moves the chunks decode to.
+     */
+    MoveLog(byte[] data, long moveCount) {
+        this.data = data;
+        this.moveCount = moveCount;
+    }
+
+    /**
+     * Builds a log from a string of inputs, ignoring any character that is not w, a, s or d.
+     *
+     * @param inputs The inputs in the order they were played.
+     * @return The encoded log.
+     */
+    public static MoveLog fromInputs(CharSequence inputs) {
+        MoveRecorder recorder = new MoveRecorder();
+        for (int i = 0; i < inputs.length(); i++) {
+            recorder.record(inputs.charAt(i));
+        }
+        return recorder.toMoveLog();
+    }
+
+    /**
+     * Reads a log previously written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in Stream to read from. Not closed.
+     * @return The log that was read.
+     * @throws IOException If the stream cannot be read, does not hold a move log, or its chunks
+     *                     are truncated or do not decode to the move count in its header.
+     */
+    public static MoveLog readFrom(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("Not a move log.");
+        }
+        int version = dataIn.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported move log version " + version + ".");
+        }
+        long moveCount = dataIn.readLong();
+        int length = dataIn.readInt();
+        if (moveCount < 0 || length < 0) {
+            throw new IOException("Corrupt move log header.");
+        }
+        // Reads in bounded steps rather than trusting the header with one large allocation.
+        byte[] data = dataIn.readNBytes(length);
+        if (data.length != length) {
+            throw new IOException("Move log truncated.");
+        }
+        if (countMoves(data) != moveCount) {
+            throw new IOException("Move log chunks do not match its move count.");
+        }
+        return new MoveLog(data, moveCount);
+    }
+
+    /**
+     * Walks the encoded chunks without decoding their moves, checking that each lies wholly
+     * within the data.
+     *
+     * @param data Encoded chunks.
+     * @return The number of moves the chunks decode to, or -1 if they are malformed.
+     */
+    private static long countMoves(byte[] data) {
+        long count = 0;
+        int position = 0;
+        while (position < data.length) {
+            int tag = data[position++] & 0xFF;
+            if ((tag & RUN_FLAG) == 0) {
+                count += tag + 1;
+                position += (tag + 1 + 3) >>> 2;
+                if (position > data.length) {
+                    return -1;
+                }
+                continue;
+            }
+            long length = tag & INLINE_RUN_LIMIT;
+            if (length == INLINE_RUN_LIMIT) {
+                long extra = 0;
+                int shift = 0;
+                int next;
+                do {
+                    if (position >= data.length || shift > 56) {
+                        return -1;
+                    }
+                    next = data[position++] & 0xFF;
+                    extra |= (long) (next & 0x7F) << shift;
+                    shift += 7;
+                } while ((next & 0x80) != 0);
+                length += extra;
+            }
+            count += length + MIN_RUN;
+            if (count < 0) {
+                return -1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes this log in its binary file format.
+     *
+     * @param out Stream to write to. Flushed but not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(VERSION);
+        dataOut.writeLong(moveCount);
+        dataOut.writeInt(data.length);
+        dataOut.write(data);
+        dataOut.flush();
+    }
+
+    /**
+     * Gets the number of moves in this log.
+     *
+     * @return The move count.
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Gets the size of the encoded moves, excluding the file header.
+     *
+     * @return The encoded size in bytes.
+     */
+    public int getEncodedSize() {
+        return data.length;
+    }
+
+    /**
+     * Creates a reader positioned at the first move.
+     *
+     * @return A new reader over this log.
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * Decodes every move back into its input character.
+     *
+     * @return The inputs, one character per move.
+     * @throws IllegalStateException If the log holds more moves than fit in a string.
+     */
+    public String toInputs() throws IllegalStateException {
+        if (moveCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Move log too long to decode into a string.");
+        }
+        StringBuilder inputs = new StringBuilder((int) moveCount);
+        Reader reader = reader();
+        for (int direction = reader.next(); direction >= 0; direction = reader.next()) {
+            inputs.append(INPUTS[direction]);
+        }
+        return inputs.toString();
+    }
+
+    /**
+     * Maps an input character to its direction code.
+     *
+     * @param input A directional input.
+     * @return One of {@link #UP}, {@link #DOWN}, {@link #LEFT}, {@link #RIGHT}, or -1 if the input
+     *         is not actionable.
+     */
+    public static int directionOf(char input) {
+        return switch (input) {
+            case 'w' -> UP;
+            case 's' -> DOWN;
+            case 'a' -> LEFT;
+            case 'd' -> RIGHT;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Gets the row change a direction code applies to the player.
+     *
+     * @param direction A direction code.
+     * @return -1, 0 or 1.
+     */
+    public static int rowChangeOf(int direction) {
+        return ROW_CHANGE[direction];
+    }
+
+    /**
+     * Gets the column change a direction code applies to the player.
+     *
+     * @param direction A direction code.
+     * @return -1, 0 or 1.
+     */
+    public static int colChangeOf(int direction) {
+        return COL_CHANGE[direction];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MoveLog log && log.moveCount == moveCount
+                && Arrays.equals(log.data, data);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(moveCount) + Arrays.hashCode(data);
+    }
+
+    /**
+     * Sequential decoder over the moves of a log. Not thread safe.
+     */
+    public final class Reader {
+        private int position;
+        private int literalRemaining;
+        private int literalIndex;
+        private int literalStart;
+        private long runRemaining;
+        private int runDirection;
+
+        private Reader() {}
+
+        /**
+         * Decodes the next move.
+         *
+         * @return The next direction code, or -1 once every move has been read.
+         */
+        public int next() {
+            if (runRemaining > 0) {
+                runRemaining--;
+                return runDirection;
+            }
+            if (literalRemaining == 0 && !readTag()) {
+                return -1;
+            }
+            if (runRemaining > 0) {
+                runRemaining--;
+                return runDirection;
+            }
+            int packed = data[literalStart + (literalIndex >>> 2)];
+            int direction = (packed >>> ((literalIndex & 3) << 1)) & 3;
+            literalIndex++;
+            literalRemaining--;
+            if (literalRemaining == 0) {
+                position = literalStart + ((literalIndex + 3) >>> 2);
+            }
+            return direction;
+        }
+
+        /**
+         * Reads the next chunk tag, setting up either a run or a literal chunk.
+         *
+         * @return false if there are no chunks left.
+         */
+        private boolean readTag() {
+            if (position >= data.length) {
+                return false;
+            }
+            int tag = data[position++] & 0xFF;
+            if ((tag & RUN_FLAG) == 0) {
+                literalRemaining = tag + 1;
+                literalIndex = 0;
+                literalStart = position;
+                return true;
+            }
+            runDirection = (tag >>> 5) & 3;
+            long length = tag & INLINE_RUN_LIMIT;
+            if (length == INLINE_RUN_LIMIT) {
+                long extra = 0;
+                int shift = 0;
+                int next;
+                do {
+                    next = data[position++] & 0xFF;
+                    extra |= (long) (next & 0x7F) << shift;
+                    shift += 7;
+                } while ((next & 0x80) != 0);
+                length += extra;
+            }
+            runRemaining = length + MIN_RUN;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package replay;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Builds a {@link MoveLog} one input at a time.
+ * Runs of at least {@value MoveLog#MIN_RUN} identical moves are stored as a single run chunk and
+ * everything else is packed into literal chunks at 2 bits per move. Not thread safe.
+ */
+public class MoveRecorder {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final int[] literal = new int[MoveLog.MAX_LITERAL];
+    private int literalLength;
+    private int runDirection = -1;
+    private long runLength;
+    private long moveCount;
+
+    /**
+     * Records a single input. Inputs other than w, a, s and d are ignored, matching
+     * {@link io.Maze#playMaze(char)}.
+     *
+     * @param input The character that was played.
+     */
+    public void record(char input) {
+        int direction = MoveLog.directionOf(input);
+        if (direction >= 0) {
+            recordDirection(direction);
+        }
+    }
+
+    /**
+     * Records a single move by direction code.
+     *
+     * @param direction One of the direction codes in {@link MoveLog}.
+     * @throws IllegalArgumentException If the code is not a direction.
+     */
+    public void recordDirection(int direction) throws IllegalArgumentException {
+        if (direction < MoveLog.UP || direction > MoveLog.RIGHT) {
+            throw new IllegalArgumentException("Invalid direction code " + direction + ".");
+        }
+        if (direction != runDirection) {
+            flushRun();
+            runDirection = direction;
+        }
+        runLength++;
+        moveCount++;
+    }
+
+    /**
+     * Gets the number of moves recorded so far.
+     *
+     * @return The move count.
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Encodes everything recorded so far. Recording may continue afterwards.
+     *
+     * @return A log of every move recorded so far.
+     */
+    public MoveLog toMoveLog() {
+        flushRun();
+        flushLiteral();
+        return new MoveLog(out.toByteArray(), moveCount);
+    }
+
+    /**
+     * Emits the current run, either as a run chunk or by appending it to the literal chunk.
+     */
+    private void flushRun() {
+        if (runLength >= MoveLog.MIN_RUN) {
+            flushLiteral();
+            long extra = runLength - MoveLog.MIN_RUN;
+            int inline = (int) Math.min(extra, MoveLog.INLINE_RUN_LIMIT);
+            out.write(MoveLog.RUN_FLAG | (runDirection << 5) | inline);
+            if (inline == MoveLog.INLINE_RUN_LIMIT) {
+                long remaining = extra - MoveLog.INLINE_RUN_LIMIT;
+                while ((remaining & ~0x7FL) != 0) {
+                    out.write((int) ((remaining & 0x7F) | 0x80));
+                    remaining >>>= 7;
+                }
+                out.write((int) remaining);
+            }
+        } else {
+            for (long i = 0; i < runLength; i++) {
+                literal[literalLength++] = runDirection;
+                if (literalLength == MoveLog.MAX_LITERAL) {
+                    flushLiteral();
+                }
+            }
+        }
+        runLength = 0;
+    }
+
+    /**
+     * Emits the pending literal moves as a packed literal chunk.
+     */
+    private void flushLiteral() {
+        if (literalLength == 0) {
+            return;
+        }
+        out.write(literalLength - 1);
+        for (int i = 0; i < literalLength; i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4 && i + j < literalLength; j++) {
+                packed |= literal[i + j] << (j << 1);
+            }
+            out.write(packed);
+        }
+        literalLength = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package replay;
+
+import exceptions.MazeUnsolvableException;
+import io.Maze;
+import io.Player;
+
+/**
+ * Plays a {@link MoveLog} against a {@link Maze} without printing or drawing anything.
+ * Moves go straight to {@link Maze#movePlayer(int, int)}, so the maze ends up in exactly the state
+ * an interactive session with the same inputs would have left it in.
+ */
+public class MoveReplayer {
+    private final boolean trackHeatmap;
+    private final boolean stopWhenSolved;
+
+    /**
+     * Creates a replayer.
+     *
+     * @param trackHeatmap   Whether to count entries into each cell.
+     * @param stopWhenSolved Whether to stop at the end point, as the interactive launcher does.
+     */
+    public MoveReplayer(boolean trackHeatmap, boolean stopWhenSolved) {
+        this.trackHeatmap = trackHeatmap;
+        this.stopWhenSolved = stopWhenSolved;
+    }
+
+    /**
+     * Creates a replayer that stops at the end point and does not track a heatmap.
+     */
+    public MoveReplayer() {
+        this(false, true);
+    }
+
+    /**
+     * Replays every move of the log against the maze, starting from the maze's current state.
+     * A MazeUnsolvableException ends the replay and is reported in the result rather than thrown.
+     *
+     * @param maze The maze to play. Its player and traversal state are updated.
+     * @param log  The moves to play.
+     * @return The outcome of the replay.
+     * @throws IllegalArgumentException If a heatmap is tracked and the maze has more cells than
+     *                                  fit in an array.
+     */
+    public ReplayResult replay(Maze maze, MoveLog log) throws IllegalArgumentException {
+        Player player = maze.getPlayer();
+        int columns = maze.getDimensions()[1];
+        long cells = (long) maze.getDimensions()[0] * columns;
+        if (trackHeatmap && cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large for a heatmap: "
+                    + maze.getDimensions()[0] + "x" + columns);
+        }
+        int[] heatmap = trackHeatmap ? new int[(int) cells] : null;
+        long solvedAtMove = -1;
+        long unsolvableAtMove = -1;
+        long move = 0;
+
+        long start = System.nanoTime();
+        MoveLog.Reader reader = log.reader();
+        for (int direction = reader.next(); direction >= 0; direction = reader.next()) {
+            int row = player.getPlayerRow();
+            int col = player.getPlayerCol();
+            try {
+                maze.movePlayer(MoveLog.rowChangeOf(direction), MoveLog.colChangeOf(direction));
+            } catch (MazeUnsolvableException e) {
+                unsolvableAtMove = move++;
+                break;
+            }
+            move++;
+            if (heatmap != null
+                    && (player.getPlayerRow() != row || player.getPlayerCol() != col)) {
+                heatmap[player.getPlayerRow() * columns + player.getPlayerCol()]++;
+            }
+            if (solvedAtMove < 0 && maze.hasBeenSolved()) {
+                solvedAtMove = move - 1;
+                if (stopWhenSolved) {
+                    break;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new ReplayResult(move, solvedAtMove, unsolvableAtMove, player.getPlayerRow(),
+                player.getPlayerCol(), elapsed, heatmap);
+    }
+}
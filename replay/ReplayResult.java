@@ -0,0 +1,118 @@
+package replay;
+
+import java.util.Locale;
+
+/**
+ * The outcome of replaying a {@link MoveLog} against a maze.
+ */
+public class ReplayResult {
+    private final long movesApplied;
+    private final long solvedAtMove;
+    private final long unsolvableAtMove;
+    private final int finalRow;
+    private final int finalCol;
+    private final long elapsedNanos;
+    private final int[] heatmap;
+
+    /**
+     * Creates a replay result.
+     *
+     * @param movesApplied     Number of moves played before the replay stopped.
+     * @param solvedAtMove     Index of the move that reached the end point, or -1.
+     * @param unsolvableAtMove Index of the move that raised MazeUnsolvableException, or -1.
+     * @param finalRow         Player's row when the replay stopped.
+     * @param finalCol         Player's column when the replay stopped.
+     * @param elapsedNanos     Wall-clock time taken by the replay.
+     * @param heatmap          Row-major count of entries into each cell, or null if not tracked.
+     */
+    ReplayResult(long movesApplied, long solvedAtMove, long unsolvableAtMove, int finalRow,
+                 int finalCol, long elapsedNanos, int[] heatmap) {
+        this.movesApplied = movesApplied;
+        this.solvedAtMove = solvedAtMove;
+        this.unsolvableAtMove = unsolvableAtMove;
+        this.finalRow = finalRow;
+        this.finalCol = finalCol;
+        this.elapsedNanos = elapsedNanos;
+        this.heatmap = heatmap;
+    }
+
+    /**
+     * Gets the number of moves played, including moves into walls that left the player in place.
+     *
+     * @return The number of moves played.
+     */
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+
+    /**
+     * Gets the zero-based index of the move that solved the maze.
+     *
+     * @return The move index, or -1 if the maze was not solved.
+     */
+    public long getSolvedAtMove() {
+        return solvedAtMove;
+    }
+
+    /**
+     * Gets the zero-based index of the move on which the maze was found to be unsolvable.
+     *
+     * @return The move index, or -1 if MazeUnsolvableException was never thrown.
+     */
+    public long getUnsolvableAtMove() {
+        return unsolvableAtMove;
+    }
+
+    /**
+     * Gets the player's row when the replay stopped.
+     *
+     * @return The final row.
+     */
+    public int getFinalRow() {
+        return finalRow;
+    }
+
+    /**
+     * Gets the player's column when the replay stopped.
+     *
+     * @return The final column.
+     */
+    public int getFinalCol() {
+        return finalCol;
+    }
+
+    /**
+     * Gets how long the replay took.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the replay speed.
+     *
+     * @return Moves played per second.
+     */
+    public double getMovesPerSecond() {
+        return elapsedNanos == 0 ? 0 : movesApplied * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets how many times the player entered each cell. Indexed by row * columns + column.
+     *
+     * @return The heatmap, or null if the replay did not track one.
+     */
+    public int[] getHeatmap() {
+        return heatmap;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "moves=%d solvedAt=%d unsolvableAt=%d final=(%d,%d) rate=%.0f moves/s",
+                movesApplied, solvedAtMove, unsolvableAtMove, finalRow, finalCol,
+                getMovesPerSecond());
+    }
+}
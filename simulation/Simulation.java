@@ -0,0 +1,546 @@
+package simulation;
+
+import grid.MazeGrid;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.Stage;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Walks many automated agents through one shared, read-only maze at once.
+ * <p>
+ * Agents are not {@link io.Player} objects. Each one is an index into a set of primitive arrays
+ * holding its position, heading, random state and step count, so a million agents cost a few
+ * tens of megabytes and no objects. The maze itself is reduced to one byte per cell naming the
+ * cell's open neighbours, so choosing a move never touches the grid. Trémaux agents also keep
+ * their passage marks in a small open-addressed table of longs, which grows with the passages
+ * they have walked.
+ * </p>
+ * <p>
+ * {@link #run(long)} steps agents on the calling thread and a pool of further worker threads,
+ * which claim batches of agents one at a time. Each worker counts cell entries into a heatmap of
+ * its own, so workers share nothing but the batch counter. An agent's moves depend only on its
+ * own state and seed, so the outcome is the same however many workers there are. Instances are
+ * not thread-safe: add agents and run the simulation from one thread.
+ * </p>
+ */
+public class Simulation {
+    private static final int BATCH_SIZE = 256;
+    private static final int INITIAL_MARKS = 64;
+    private static final Strategy[] STRATEGIES = Strategy.values();
+
+    // Agent statuses.
+    private static final byte ACTIVE = 0;
+    private static final byte EXITED = 1;
+    private static final byte STUCK = 2;
+
+    // Directions clockwise from up, so turning right adds one.
+    private static final int UP = 0;
+    private static final int RIGHT = 1;
+    private static final int DOWN = 2;
+    private static final int LEFT = 3;
+    private static final byte NO_HEADING = -1;
+
+    private final int rows;
+    private final int cols;
+    private final int[] offsets;
+    private final byte[] openDirections;
+    private final int startCell;
+    private final int endCell;
+    private final int workers;
+    private final long[][] workerHeatmaps;
+    private final Histogram[] timeToExit = new Histogram[STRATEGIES.length];
+    private final LongAdder agentSteps = new LongAdder();
+    private long elapsedNanos;
+
+    // Agent state, one entry per agent.
+    private int agentCount;
+    private byte[] strategies = new byte[0];
+    private byte[] statuses = new byte[0];
+    private int[] positions = new int[0];
+    private byte[] headings = new byte[0];
+    private long[] randoms = new long[0];
+    private long[] steps = new long[0];
+    private long[][] marks = new long[0][];
+    private int[] markCounts = new int[0];
+
+    /**
+     * Creates a simulation with no agents.
+     *
+     * @param grid         The maze to walk. It is read once and not changed.
+     * @param workers      Number of threads each run steps agents on, including the calling
+     *                     thread.
+     * @param trackHeatmap Whether to count entries into each cell, which costs eight bytes per
+     *                     cell per worker.
+     * @throws IllegalArgumentException If the grid has no start point or more cells than fit in
+     *                                  an array, or workers is not positive.
+     */
+    public Simulation(MazeGrid grid, int workers, boolean trackHeatmap)
+            throws IllegalArgumentException {
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        if ((long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large to simulate: " + rows + "x" + cols);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed: " + workers);
+        }
+        long start = grid.find(MazeGrid.START);
+        if (start < 0) {
+            throw new IllegalArgumentException("Maze has no start point.");
+        }
+        this.startCell = (int) start;
+        this.endCell = (int) grid.find(MazeGrid.END);
+        this.offsets = new int[]{-cols, 1, cols, -1};
+        this.openDirections = openDirectionsOf(grid.getTraversableBitmap(), rows, cols);
+        this.workers = workers;
+        this.workerHeatmaps = trackHeatmap ? new long[workers][rows * cols] : null;
+        for (int i = 0; i < timeToExit.length; i++) {
+            timeToExit[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Creates a simulation with one worker per available processor.
+     *
+     * @param grid         The maze to walk. It is read once and not changed.
+     * @param trackHeatmap Whether to count entries into each cell.
+     * @throws IllegalArgumentException If the grid has no start point or more cells than fit in
+     *                                  an array.
+     */
+    public Simulation(MazeGrid grid, boolean trackHeatmap) throws IllegalArgumentException {
+        this(grid, Runtime.getRuntime().availableProcessors(), trackHeatmap);
+    }
+
+    /**
+     * Adds agents at the start point. Wall followers start facing up.
+     *
+     * @param strategy How the new agents choose their moves.
+     * @param count    Number of agents to add.
+     * @param seed     Seed from which each new agent's random choices are derived.
+     * @return Index of the first new agent.
+     * @throws IllegalArgumentException If count is negative or the total would not fit in an
+     *                                  array.
+     */
+    public int addAgents(Strategy strategy, int count, long seed) throws IllegalArgumentException {
+        if (count < 0 || count > Integer.MAX_VALUE - 8 - agentCount) {
+            throw new IllegalArgumentException("Invalid agent count: " + count);
+        }
+        int first = agentCount;
+        int total = first + count;
+        if (total > positions.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(total, positions.length * 2L));
+            strategies = Arrays.copyOf(strategies, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            headings = Arrays.copyOf(headings, capacity);
+            randoms = Arrays.copyOf(randoms, capacity);
+            steps = Arrays.copyOf(steps, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+            markCounts = Arrays.copyOf(markCounts, capacity);
+        }
+        byte heading = strategy == Strategy.WALL_FOLLOWER ? UP : NO_HEADING;
+        for (int agent = first; agent < total; agent++) {
+            strategies[agent] = (byte) strategy.ordinal();
+            statuses[agent] = ACTIVE;
+            positions[agent] = startCell;
+            headings[agent] = heading;
+            randoms[agent] = mix(seed + (agent - first) * 0x9E3779B97F4A7C15L) | 1;
+        }
+        agentCount = total;
+        return first;
+    }
+
+    /**
+     * Advances every agent that has neither reached the end point nor got stuck by up to the
+     * given number of steps. Calling it again continues from where the agents stopped.
+     *
+     * @param maxSteps Most steps each agent may take in this call.
+     * @return Statistics over every run so far.
+     * @throws IllegalArgumentException If maxSteps is negative.
+     */
+    public SimulationReport run(long maxSteps) throws IllegalArgumentException {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Invalid step count: " + maxSteps);
+        }
+        long start = Metrics.start();
+        long began = System.nanoTime();
+        int batches = (agentCount + BATCH_SIZE - 1) / BATCH_SIZE;
+        int threads = Math.min(workers, Math.max(1, batches));
+        AtomicInteger nextBatch = new AtomicInteger();
+        // The calling thread is the first worker, so a single worker starts no threads.
+        ExecutorService pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "maze-simulation");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[threads - 1];
+            for (int worker = 1; worker < threads; worker++) {
+                long[] heatmap = workerHeatmaps == null ? null : workerHeatmaps[worker];
+                tasks[worker - 1] = CompletableFuture.runAsync(
+                        () -> stepBatches(nextBatch, batches, maxSteps, heatmap), pool);
+            }
+            stepBatches(nextBatch, batches, maxSteps,
+                    workerHeatmaps == null ? null : workerHeatmaps[0]);
+            CompletableFuture.allOf(tasks).join();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        elapsedNanos += System.nanoTime() - began;
+        Metrics.stop(Stage.SIMULATE, start);
+        return report();
+    }
+
+    /**
+     * Claims batches of agents until none are left, advancing each active agent in them.
+     *
+     * @param nextBatch Index of the next unclaimed batch, shared by the workers.
+     * @param batches   Number of batches.
+     * @param maxSteps  Most steps each agent may take.
+     * @param heatmap   This worker's heatmap, or null.
+     */
+    private void stepBatches(AtomicInteger nextBatch, int batches, long maxSteps,
+                             long[] heatmap) {
+        long taken = 0;
+        for (int batch = nextBatch.getAndIncrement(); batch < batches;
+             batch = nextBatch.getAndIncrement()) {
+            int to = Math.min(agentCount, (batch + 1) * BATCH_SIZE);
+            for (int agent = batch * BATCH_SIZE; agent < to; agent++) {
+                if (statuses[agent] == ACTIVE) {
+                    taken += advance(agent, maxSteps, heatmap);
+                }
+            }
+        }
+        agentSteps.add(taken);
+    }
+
+    /**
+     * Gathers the statistics of every run so far.
+     *
+     * @return The report.
+     */
+    public SimulationReport report() {
+        long exited = 0;
+        long stuck = 0;
+        for (int agent = 0; agent < agentCount; agent++) {
+            if (statuses[agent] == EXITED) {
+                exited++;
+            } else if (statuses[agent] == STUCK) {
+                stuck++;
+            }
+        }
+        long[] heatmap = null;
+        if (workerHeatmaps != null) {
+            heatmap = new long[rows * cols];
+            for (long[] workerHeatmap : workerHeatmaps) {
+                for (int cell = 0; cell < heatmap.length; cell++) {
+                    heatmap[cell] += workerHeatmap[cell];
+                }
+            }
+        }
+        return new SimulationReport(agentCount, exited, stuck, agentSteps.sum(), elapsedNanos,
+                timeToExit.clone(), heatmap);
+    }
+
+    /**
+     * Advances one agent.
+     *
+     * @param agent   Index of an active agent.
+     * @param budget  Most steps to take.
+     * @param heatmap The worker's heatmap, or null.
+     * @return The number of steps taken.
+     */
+    private long advance(int agent, long budget, long[] heatmap) {
+        return switch (STRATEGIES[strategies[agent]]) {
+            case RANDOM_WALK -> walkRandomly(agent, budget, heatmap);
+            case WALL_FOLLOWER -> followWall(agent, budget, heatmap);
+            case TREMAUX -> walkTremaux(agent, budget, heatmap);
+        };
+    }
+
+    private long walkRandomly(int agent, long budget, long[] heatmap) {
+        int cell = positions[agent];
+        long random = randoms[agent];
+        long taken = 0;
+        while (taken < budget) {
+            int open = openDirections[cell];
+            if (open == 0) {
+                statuses[agent] = STUCK;
+                break;
+            }
+            random = nextRandom(random);
+            cell += offsets[pick(open, random)];
+            taken++;
+            if (heatmap != null) {
+                heatmap[cell]++;
+            }
+            if (cell == endCell) {
+                exit(agent, steps[agent] + taken);
+                break;
+            }
+        }
+        positions[agent] = cell;
+        randoms[agent] = random;
+        steps[agent] += taken;
+        return taken;
+    }
+
+    private long followWall(int agent, long budget, long[] heatmap) {
+        int cell = positions[agent];
+        int heading = headings[agent];
+        long taken = 0;
+        while (taken < budget) {
+            int open = openDirections[cell];
+            if (open == 0) {
+                statuses[agent] = STUCK;
+                break;
+            }
+            // Try right, straight on, left and back, in that order.
+            int direction = (heading + 1) & 3;
+            while ((open & (1 << direction)) == 0) {
+                direction = (direction + 3) & 3;
+            }
+            heading = direction;
+            cell += offsets[direction];
+            taken++;
+            if (heatmap != null) {
+                heatmap[cell]++;
+            }
+            if (cell == endCell) {
+                exit(agent, steps[agent] + taken);
+                break;
+            }
+        }
+        positions[agent] = cell;
+        headings[agent] = (byte) heading;
+        steps[agent] += taken;
+        return taken;
+    }
+
+    private long walkTremaux(int agent, long budget, long[] heatmap) {
+        int cell = positions[agent];
+        int heading = headings[agent];
+        long random = randoms[agent];
+        long taken = 0;
+        while (taken < budget) {
+            int open = openDirections[cell];
+            int unmarked = 0;
+            int once = 0;
+            int twice = 0;
+            for (int rest = open; rest != 0; rest &= rest - 1) {
+                int direction = Integer.numberOfTrailingZeros(rest);
+                int count = marksOf(agent, edgeOf(cell, direction));
+                if (count == 0) {
+                    unmarked |= 1 << direction;
+                } else if (count == 1) {
+                    once |= 1 << direction;
+                } else {
+                    twice |= 1 << direction;
+                }
+            }
+            int back = heading == NO_HEADING ? 0 : 1 << ((heading + 2) & 3);
+            int choices;
+            if (back != 0 && (open & ~back & ~unmarked) == 0) {
+                // A new cell: take any other passage, or turn back at a dead end.
+                choices = open & ~back;
+                if (choices == 0) {
+                    choices = back;
+                }
+            } else if ((once & back) != 0) {
+                // A known cell reached by a new passage: go back the way we came.
+                choices = back;
+            } else {
+                choices = unmarked != 0 ? unmarked : once;
+            }
+            choices &= ~twice;
+            if (choices == 0) {
+                statuses[agent] = STUCK;
+                break;
+            }
+            random = nextRandom(random);
+            int direction = pick(choices, random);
+            addMark(agent, edgeOf(cell, direction));
+            heading = direction;
+            cell += offsets[direction];
+            taken++;
+            if (heatmap != null) {
+                heatmap[cell]++;
+            }
+            if (cell == endCell) {
+                exit(agent, steps[agent] + taken);
+                break;
+            }
+        }
+        positions[agent] = cell;
+        headings[agent] = (byte) heading;
+        randoms[agent] = random;
+        steps[agent] += taken;
+        return taken;
+    }
+
+    /**
+     * Marks an agent as having reached the end point.
+     *
+     * @param agent Index of the agent.
+     * @param total Steps the agent took to get there.
+     */
+    private void exit(int agent, long total) {
+        statuses[agent] = EXITED;
+        timeToExit[strategies[agent]].record(total);
+    }
+
+    /**
+     * Names the passage leaving a cell in a direction. Each passage between two cells has one
+     * name, whichever of them it is seen from.
+     *
+     * @param cell      Cell index.
+     * @param direction Direction of an open neighbour.
+     * @return Twice the index of the passage's upper or left cell, plus one for a vertical
+     *         passage.
+     */
+    private long edgeOf(int cell, int direction) {
+        return switch (direction) {
+            case UP -> 2L * (cell - cols) + 1;
+            case RIGHT -> 2L * cell;
+            case DOWN -> 2L * cell + 1;
+            default -> 2L * (cell - 1); // LEFT.
+        };
+    }
+
+    /**
+     * Gets how many times a Trémaux agent has walked a passage.
+     *
+     * @param agent Index of the agent.
+     * @param edge  Name of the passage.
+     * @return 0, 1 or 2.
+     */
+    private int marksOf(int agent, long edge) {
+        long[] table = marks[agent];
+        return table == null ? 0 : (int) (table[slotOf(table, edge)] & 3);
+    }
+
+    /**
+     * Records that a Trémaux agent has walked a passage once more.
+     *
+     * @param agent Index of the agent.
+     * @param edge  Name of the passage.
+     */
+    private void addMark(int agent, long edge) {
+        long[] table = marks[agent];
+        if (table == null) {
+            table = new long[INITIAL_MARKS];
+            marks[agent] = table;
+        }
+        int slot = slotOf(table, edge);
+        if (table[slot] != 0) {
+            table[slot]++;
+            return;
+        }
+        table[slot] = (edge + 1) << 2 | 1;
+        if (++markCounts[agent] * 2 > table.length) {
+            long[] grown = new long[table.length * 2];
+            for (long entry : table) {
+                if (entry != 0) {
+                    grown[slotOf(grown, (entry >>> 2) - 1)] = entry;
+                }
+            }
+            marks[agent] = grown;
+        }
+    }
+
+    /**
+     * Finds a passage's slot in a mark table. Entries hold the passage name plus one above two
+     * bits of mark count, so an empty slot is zero.
+     *
+     * @param table The mark table, at most half full.
+     * @param edge  Name of the passage.
+     * @return The slot holding the passage, or the empty slot where it belongs.
+     */
+    private static int slotOf(long[] table, long edge) {
+        long key = (edge + 1) << 2;
+        int mask = table.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[slot] != 0 && (table[slot] & ~3L) != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Picks one of a set of directions uniformly at random.
+     *
+     * @param directions Bit mask of directions, not empty.
+     * @param random     A random value.
+     * @return The chosen direction.
+     */
+    private static int pick(int directions, long random) {
+        int skip = (int) (((random >>> 32) * Integer.bitCount(directions)) >>> 32);
+        for (int i = 0; i < skip; i++) {
+            directions &= directions - 1;
+        }
+        return Integer.numberOfTrailingZeros(directions);
+    }
+
+    private static long nextRandom(long random) { // xorshift64.
+        random ^= random << 13;
+        random ^= random >>> 7;
+        return random ^ (random << 17);
+    }
+
+    private static long mix(long value) { // SplitMix64 finaliser.
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Records, for every open cell, which of its neighbours are open too.
+     *
+     * @param open Traversable bitmap of the maze.
+     * @param rows Row count.
+     * @param cols Column count.
+     * @return One byte per cell, with bit d set if the neighbour in direction d is open.
+     */
+    private static byte[] openDirectionsOf(long[] open, int rows, int cols) {
+        byte[] directions = new byte[rows * cols];
+        IntStream.range(0, rows).parallel().forEach(row -> {
+            for (int col = 0, cell = row * cols; col < cols; col++, cell++) {
+                if (!isOpen(open, cell)) {
+                    continue;
+                }
+                int mask = 0;
+                if (row > 0 && isOpen(open, cell - cols)) {
+                    mask |= 1 << UP;
+                }
+                if (col < cols - 1 && isOpen(open, cell + 1)) {
+                    mask |= 1 << RIGHT;
+                }
+                if (row < rows - 1 && isOpen(open, cell + cols)) {
+                    mask |= 1 << DOWN;
+                }
+                if (col > 0 && isOpen(open, cell - 1)) {
+                    mask |= 1 << LEFT;
+                }
+                directions[cell] = (byte) mask;
+            }
+        });
+        return directions;
+    }
+
+    private static boolean isOpen(long[] open, int cell) {
+        return (open[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -0,0 +1,144 @@
+package simulation;
+
+import metrics.Histogram;
+
+import java.util.Locale;
+
+/**
+ * Aggregate statistics of a {@link Simulation}, covering every run so far.
+ */
+public class SimulationReport {
+    private final long agentCount;
+    private final long exitedCount;
+    private final long stuckCount;
+    private final long agentSteps;
+    private final long elapsedNanos;
+    private final Histogram[] timeToExit;
+    private final long[] heatmap;
+
+    /**
+     * Creates a simulation report.
+     *
+     * @param agentCount   Number of agents in the simulation.
+     * @param exitedCount  Number of agents that have reached the end point.
+     * @param stuckCount   Number of agents left with no move they may make.
+     * @param agentSteps   Steps taken by all agents together.
+     * @param elapsedNanos Wall-clock time spent stepping agents.
+     * @param timeToExit   Steps each agent took to reach the end point, indexed by strategy
+     *                     ordinal.
+     * @param heatmap      Row-major count of entries into each cell, or null if not tracked.
+     */
+    SimulationReport(long agentCount, long exitedCount, long stuckCount, long agentSteps,
+                     long elapsedNanos, Histogram[] timeToExit, long[] heatmap) {
+        this.agentCount = agentCount;
+        this.exitedCount = exitedCount;
+        this.stuckCount = stuckCount;
+        this.agentSteps = agentSteps;
+        this.elapsedNanos = elapsedNanos;
+        this.timeToExit = timeToExit;
+        this.heatmap = heatmap;
+    }
+
+    /**
+     * Gets the number of agents in the simulation.
+     *
+     * @return The agent count.
+     */
+    public long getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Gets the number of agents that have reached the end point.
+     *
+     * @return The exited agent count.
+     */
+    public long getExitedCount() {
+        return exitedCount;
+    }
+
+    /**
+     * Gets the number of agents that stopped without reaching the end point because they had no
+     * move left to make: Trémaux agents that walked every passage they could reach twice, and
+     * agents whose start point has no open neighbour.
+     *
+     * @return The stuck agent count.
+     */
+    public long getStuckCount() {
+        return stuckCount;
+    }
+
+    /**
+     * Gets the number of agents still walking.
+     *
+     * @return The active agent count.
+     */
+    public long getActiveCount() {
+        return agentCount - exitedCount - stuckCount;
+    }
+
+    /**
+     * Gets the steps taken by all agents together.
+     *
+     * @return The total agent-step count.
+     */
+    public long getAgentSteps() {
+        return agentSteps;
+    }
+
+    /**
+     * Gets how long the agents have been stepped for.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the simulation speed.
+     *
+     * @return Agent-steps per second.
+     */
+    public double getStepsPerSecond() {
+        return elapsedNanos == 0 ? 0 : agentSteps * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the distribution of steps that agents of a strategy took to reach the end point. The
+     * histogram is the simulation's own, so it keeps counting if the simulation runs again.
+     *
+     * @param strategy The strategy whose agents are wanted.
+     * @return The time-to-exit histogram, in steps.
+     */
+    public Histogram getTimeToExit(Strategy strategy) {
+        return timeToExit[strategy.ordinal()];
+    }
+
+    /**
+     * Gets how many times agents entered each cell. Indexed by row * columns + column.
+     *
+     * @return The heatmap, or null if the simulation does not track one.
+     */
+    public long[] getHeatmap() {
+        return heatmap;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "agents=%d exited=%d stuck=%d active=%d steps=%d rate=%.0f steps/s",
+                agentCount, exitedCount, stuckCount, getActiveCount(), agentSteps,
+                getStepsPerSecond()));
+        for (Strategy strategy : Strategy.values()) {
+            Histogram exits = getTimeToExit(strategy);
+            if (exits.getCount() > 0) {
+                text.append(String.format(Locale.ROOT,
+                        "%n%s: exited=%d mean=%.0f p50=%d p99=%d max=%d",
+                        strategy.getLabel(), exits.getCount(), exits.getMean(),
+                        exits.getPercentile(50), exits.getPercentile(99), exits.getMax()));
+            }
+        }
+        return text.toString();
+    }
+}
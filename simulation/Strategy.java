@@ -0,0 +1,43 @@
+package simulation;
+
+/**
+ * The ways a simulated agent chooses its next move. None of them know where the end point is.
+ */
+public enum Strategy {
+    /**
+     * Moves to an open neighbour chosen uniformly at random.
+     */
+    RANDOM_WALK("random"),
+    /**
+     * Keeps a wall on its right, turning right whenever it can. Reaches the end point of any maze
+     * whose start and end points lie on the same connected wall, including every maze without
+     * loops.
+     */
+    WALL_FOLLOWER("wall"),
+    /**
+     * Trémaux's algorithm: marks each passage as it is walked, never walks one more than twice,
+     * and turns back on reaching a known cell by a new passage. Reaches the end point of any
+     * solvable maze, and gives up once every passage it can reach has been walked twice.
+     */
+    TREMAUX("tremaux");
+
+    private final String label;
+
+    /**
+     * A movement strategy.
+     *
+     * @param label Short lowercase name used in reports.
+     */
+    Strategy(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the short name of this strategy.
+     *
+     * @return The strategy's label.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,166 @@
+package solver;
+
+import grid.MazeGrid;
+import grid.OffHeapBytes;
+import grid.TerrainType;
+import io.Maze;
+import metrics.Metrics;
+import metrics.Stage;
+
+/**
+ * Finds a shortest path from the start point to the end point with a breadth-first search.
+ * Every move counts the same, terrain included; {@link WeightedSolver} finds the cheapest path
+ * instead.
+ * <p>
+ * The search works on any {@link MazeGrid}, reading cells through it directly, so it never
+ * materialises maze components. Visited cells and the direction each was reached from are kept
+ * in one off-heap byte per cell, and only the frontier lives on the heap, so solving an off-heap
+ * grid does not grow the heap with the size of the maze.
+ * </p>
+ */
+public final class BreadthFirstSolver {
+    private static final byte UNVISITED = 0;
+    private static final byte START = 5; // Directions are stored as 1-4.
+    private static final int[] ROW_CHANGE = {-1, 1, 0, 0};
+    private static final int[] COL_CHANGE = {0, 0, -1, 1};
+    private static final int MAX_PATH_CELLS = Integer.MAX_VALUE - 8;
+
+    private BreadthFirstSolver() {}
+
+    /**
+     * Solves a maze from its start point.
+     *
+     * @param maze The maze to solve. Its player and traversal state are ignored.
+     * @return The solution.
+     */
+    public static Solution solve(Maze maze) {
+        return solve(maze.getGrid());
+    }
+
+    /**
+     * Solves a grid from its start point.
+     *
+     * @param grid The cells to solve.
+     * @return The solution, unsolvable if the grid has no start or end point.
+     */
+    public static Solution solve(MazeGrid grid) {
+        long start = Metrics.start();
+        int cols = grid.getCols();
+        long startIndex = grid.find(MazeGrid.START);
+        long endIndex = grid.find(MazeGrid.END);
+        if (startIndex < 0 || endIndex < 0) {
+            Metrics.stop(Stage.SOLVE, start);
+            return new Solution(-1, -1, null, 0);
+        }
+
+        OffHeapBytes from = OffHeapBytes.allocate(grid.getStorageSize());
+        LongQueue frontier = new LongQueue();
+        from.set(grid.storageIndexOf((int) (startIndex / cols), (int) (startIndex % cols)),
+                START);
+        frontier.add(startIndex);
+        long expanded = 0;
+        boolean found = false;
+        while (!frontier.isEmpty()) {
+            long cell = frontier.remove();
+            expanded++;
+            if (cell == endIndex) {
+                found = true;
+                break;
+            }
+            int row = (int) (cell / cols);
+            int col = (int) (cell % cols);
+            for (int direction = 0; direction < 4; direction++) {
+                int newRow = row + ROW_CHANGE[direction];
+                int newCol = col + COL_CHANGE[direction];
+                if (!grid.inBounds(newRow, newCol) || !grid.isTraversable(newRow, newCol)) {
+                    continue;
+                }
+                long stored = grid.storageIndexOf(newRow, newCol);
+                if (from.get(stored) == UNVISITED) {
+                    from.set(stored, (byte) (direction + 1));
+                    frontier.add((long) newRow * cols + newCol);
+                }
+            }
+        }
+        Metrics.NODES_EXPANDED.add(expanded);
+        Solution solution = found ? tracePath(grid, from, startIndex, endIndex, expanded)
+                : new Solution(-1, -1, null, expanded);
+        Metrics.stop(Stage.SOLVE, start);
+        return solution;
+    }
+
+    /**
+     * Walks the recorded directions back from the end point to build the path. Shared with
+     * {@link WeightedSolver}, which records directions the same way.
+     *
+     * @param grid       The grid that was searched.
+     * @param from       Direction each visited cell was entered by, plus one, in the grid's
+     *                   storage layout.
+     * @param startIndex Cell index of the start point.
+     * @param endIndex   Cell index of the end point.
+     * @param expanded   Number of cells the search visited.
+     * @return The solution, without the cells if there are too many to hold in an array.
+     */
+    static Solution tracePath(MazeGrid grid, OffHeapBytes from, long startIndex, long endIndex,
+                              long expanded) {
+        int cols = grid.getCols();
+        long moves = 0;
+        long cost = 0;
+        for (long cell = endIndex; cell != startIndex; moves++) {
+            cost += TerrainType.costOf(grid.getCell((int) (cell / cols), (int) (cell % cols)));
+            cell = stepBack(grid, from, cell);
+        }
+        if (moves >= MAX_PATH_CELLS) {
+            return new Solution(moves, cost, null, expanded);
+        }
+        long[] path = new long[(int) moves + 1];
+        long cell = endIndex;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = cell;
+            if (i > 0) {
+                cell = stepBack(grid, from, cell);
+            }
+        }
+        return new Solution(moves, cost, path, expanded);
+    }
+
+    private static long stepBack(MazeGrid grid, OffHeapBytes from, long cell) {
+        int cols = grid.getCols();
+        int row = (int) (cell / cols);
+        int col = (int) (cell % cols);
+        int direction = from.get(grid.storageIndexOf(row, col)) - 1;
+        return cell - ROW_CHANGE[direction] * (long) cols - COL_CHANGE[direction];
+    }
+
+    /**
+     * A growable ring buffer of cell indices.
+     */
+    private static class LongQueue {
+        private long[] elements = new long[256];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(long value) {
+            if (size == elements.length) {
+                long[] grown = new long[elements.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = elements[(head + i) & (elements.length - 1)];
+                }
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size++) & (elements.length - 1)] = value;
+        }
+
+        long remove() {
+            long value = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package solver;
+
+import grid.MazeGrid;
+import grid.TerrainType;
+import io.Maze;
+import io.MazeEditListener;
+import metrics.Metrics;
+import metrics.Stage;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the shortest distance from the start point to every cell up to date as cells are turned
+ * into walls or paths, so whether the maze is solvable, and its shortest path, are known after
+ * each edit without searching the whole maze again.
+ * <p>
+ * Opening a cell relaxes outwards from it, visiting only cells whose distance shrinks. Closing a
+ * cell first collects the cells whose every shortest path ran through it, walking down from it
+ * one distance level at a time and stopping at any cell still reachable at its old distance
+ * through another neighbour. Only those cells are then re-solved, seeded from the unaffected
+ * cells around them. Both cost time proportional to the cells whose distance changes, not to the
+ * size of the maze.
+ * </p>
+ * The start and end points must not move while the solver is in use.
+ */
+public class IncrementalSolver implements MazeEditListener {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int cells;
+    private final int startIndex;
+    private final int endIndex;
+    private final int[] distance;
+    private final IntQueue queue = new IntQueue();
+    private final IntQueue affected = new IntQueue();
+    private final int[] neighbours = new int[4];
+    private long[] heap = new long[64];
+    private int heapSize;
+    private long lastRepairSize;
+    private long lastExpanded;
+
+    /**
+     * Creates a solver for a grid and solves it from scratch.
+     *
+     * @param grid The cells to solve. Changes must be reported through
+     *             {@link #cellChanged(int, int, char, char)}.
+     * @throws IllegalArgumentException If the grid has more cells than fit in an array, or has
+     *                                  no start or end point.
+     */
+    public IncrementalSolver(MazeGrid grid) throws IllegalArgumentException {
+        if ((long) grid.getRows() * grid.getCols() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large to solve incrementally: "
+                    + grid.getRows() + "x" + grid.getCols());
+        }
+        long startIndex = grid.find(MazeGrid.START);
+        long endIndex = grid.find(MazeGrid.END);
+        if (startIndex < 0 || endIndex < 0) {
+            throw new IllegalArgumentException("Maze has no start point or end point.");
+        }
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.cells = grid.getRows() * cols;
+        this.startIndex = (int) startIndex;
+        this.endIndex = (int) endIndex;
+        this.distance = new int[cells];
+        solveAll();
+    }
+
+    /**
+     * Creates a solver for a maze and attaches it as the maze's edit listener, so every
+     * {@link Maze#setWall(int, int)} and {@link Maze#setPath(int, int)} updates it.
+     *
+     * @param maze The maze to solve.
+     * @return The attached solver.
+     * @throws IllegalArgumentException If the maze has more cells than fit in an array.
+     */
+    public static IncrementalSolver attach(Maze maze) throws IllegalArgumentException {
+        IncrementalSolver solver = new IncrementalSolver(maze.getGrid());
+        maze.setEditListener(solver);
+        return solver;
+    }
+
+    /**
+     * Runs a full breadth-first search from the start point.
+     */
+    private void solveAll() {
+        long start = Metrics.start();
+        Arrays.fill(distance, UNREACHED);
+        lastExpanded = 0;
+        distance[startIndex] = 0;
+        queue.add(startIndex);
+        relax();
+        lastRepairSize = cells;
+        Metrics.stop(Stage.SOLVE, start);
+    }
+
+    @Override
+    public void cellChanged(int row, int col, char oldCell, char newCell) {
+        boolean wasOpen = MazeGrid.isTraversable(oldCell);
+        boolean isOpen = MazeGrid.isTraversable(newCell);
+        if (wasOpen == isOpen) {
+            return;
+        }
+        long start = Metrics.start();
+        int cell = row * cols + col;
+        if (isOpen) {
+            opened(cell);
+        } else {
+            closed(cell);
+        }
+        Metrics.NODES_EXPANDED.add(lastExpanded);
+        Metrics.stop(Stage.REPAIR, start);
+    }
+
+    /**
+     * Updates distances after a cell becomes traversable.
+     *
+     * @param cell Index of the opened cell.
+     */
+    private void opened(int cell) {
+        lastRepairSize = 1;
+        lastExpanded = 0;
+        int best = UNREACHED;
+        int count = openNeighbours(cell);
+        for (int i = 0; i < count; i++) {
+            best = Math.min(best, distance[neighbours[i]]);
+        }
+        if (best == UNREACHED) {
+            return; // Not connected to the start point yet.
+        }
+        distance[cell] = best + 1;
+        queue.add(cell);
+        relax();
+    }
+
+    /**
+     * Updates distances after a cell stops being traversable.
+     *
+     * @param cell Index of the closed cell.
+     */
+    private void closed(int cell) {
+        int closedDistance = distance[cell];
+        distance[cell] = UNREACHED;
+        lastRepairSize = 1;
+        lastExpanded = 0;
+        if (closedDistance == UNREACHED) {
+            return;
+        }
+
+        // Collect the cells that lost every shortest path, level by level down from the cell.
+        int count = openNeighbours(cell);
+        for (int i = 0; i < count; i++) {
+            if (distance[neighbours[i]] == closedDistance + 1) {
+                queue.add(neighbours[i]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int current = queue.remove();
+            int level = distance[current];
+            if (level == UNREACHED || hasParent(current, level)) {
+                continue; // Already collected, or still reachable at its old distance.
+            }
+            distance[current] = UNREACHED;
+            affected.add(current);
+            lastExpanded++;
+            count = openNeighbours(current);
+            for (int i = 0; i < count; i++) {
+                if (distance[neighbours[i]] == level + 1) {
+                    queue.add(neighbours[i]);
+                }
+            }
+        }
+
+        // Re-solve the collected cells from the unaffected cells bordering them.
+        lastRepairSize += affected.size();
+        while (!affected.isEmpty()) {
+            int current = affected.remove();
+            int best = UNREACHED;
+            count = openNeighbours(current);
+            for (int i = 0; i < count; i++) {
+                best = Math.min(best, distance[neighbours[i]]);
+            }
+            if (best != UNREACHED) {
+                push(best + 1, current);
+            }
+        }
+        while (heapSize > 0) {
+            long entry = pop();
+            int level = (int) (entry >>> 32);
+            int current = (int) entry;
+            if (level >= distance[current]) {
+                continue;
+            }
+            distance[current] = level;
+            lastExpanded++;
+            count = openNeighbours(current);
+            for (int i = 0; i < count; i++) {
+                if (distance[neighbours[i]] > level + 1) {
+                    push(level + 1, neighbours[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Propagates distances outwards from the queued cells, lowering any neighbour that can be
+     * reached in fewer moves. The queued cells must share the same distance.
+     */
+    private void relax() {
+        while (!queue.isEmpty()) {
+            int current = queue.remove();
+            lastExpanded++;
+            int next = distance[current] + 1;
+            int count = openNeighbours(current);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (distance[neighbour] > next) {
+                    distance[neighbour] = next;
+                    queue.add(neighbour);
+                    lastRepairSize++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a cell has a neighbour one move closer to the start point.
+     *
+     * @param cell  Index of the cell.
+     * @param level The cell's distance.
+     * @return true if some neighbour has distance level - 1.
+     */
+    private boolean hasParent(int cell, int level) {
+        int count = openNeighbours(cell);
+        for (int i = 0; i < count; i++) {
+            if (distance[neighbours[i]] == level - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the traversable neighbours of a cell into {@link #neighbours}.
+     *
+     * @param cell Index of the cell.
+     * @return The number of neighbours collected.
+     */
+    private int openNeighbours(int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        int count = 0;
+        if (row > 0 && grid.isTraversable(row - 1, col)) {
+            neighbours[count++] = cell - cols;
+        }
+        if (cell + cols < cells && grid.isTraversable(row + 1, col)) {
+            neighbours[count++] = cell + cols;
+        }
+        if (col > 0 && grid.isTraversable(row, col - 1)) {
+            neighbours[count++] = cell - 1;
+        }
+        if (col < cols - 1 && grid.isTraversable(row, col + 1)) {
+            neighbours[count++] = cell + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the end point can currently be reached.
+     *
+     * @return true if the maze is solvable.
+     */
+    public boolean isSolvable() {
+        return distance[endIndex] != UNREACHED;
+    }
+
+    /**
+     * Gets the current shortest distance from the start point to a cell.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @return The number of moves, or -1 if the cell cannot be reached.
+     */
+    public int getDistance(int row, int col) {
+        int value = distance[row * cols + col];
+        return value == UNREACHED ? -1 : value;
+    }
+
+    /**
+     * Gets a current shortest path, walking back from the end point along decreasing distances.
+     * Takes time proportional to the length of the path.
+     *
+     * @return The solution. Its expanded node count is that of the last update: the full solve
+     *         when the solver was created, otherwise the last repair.
+     */
+    public Solution getSolution() {
+        if (!isSolvable()) {
+            return new Solution(-1, -1, null, lastExpanded);
+        }
+        long[] path = new long[distance[endIndex] + 1];
+        long cost = 0;
+        int cell = endIndex;
+        for (int i = path.length - 1; i > 0; i--) {
+            path[i] = cell;
+            cost += TerrainType.costOf(grid.getCell(cell / cols, cell % cols));
+            int count = openNeighbours(cell);
+            for (int j = 0; j < count; j++) {
+                if (distance[neighbours[j]] == i - 1) {
+                    cell = neighbours[j];
+                    break;
+                }
+            }
+        }
+        path[0] = cell;
+        return new Solution(path.length - 1, cost, path, lastExpanded);
+    }
+
+    /**
+     * Gets how many cells the last update had to examine or change, as a measure of its cost.
+     *
+     * @return The size of the last repaired region.
+     */
+    public long getLastRepairSize() {
+        return lastRepairSize;
+    }
+
+    private void push(int level, int cell) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        long entry = ((long) level << 32) | cell;
+        int slot = heapSize++;
+        while (slot > 0 && heap[(slot - 1) >>> 1] > entry) {
+            heap[slot] = heap[(slot - 1) >>> 1];
+            slot = (slot - 1) >>> 1;
+        }
+        heap[slot] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[slot] = heap[child];
+            slot = child;
+        }
+        heap[slot] = last;
+        return top;
+    }
+
+    /**
+     * A growable ring buffer of cell indices.
+     */
+    private static class IntQueue {
+        private int[] elements = new int[64];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int value) {
+            if (size == elements.length) {
+                int[] grown = new int[elements.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = elements[(head + i) & (elements.length - 1)];
+                }
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size++) & (elements.length - 1)] = value;
+        }
+
+        int remove() {
+            int value = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return value;
+        }
+    }
+}
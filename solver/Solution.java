@@ -0,0 +1,87 @@
+package solver;
+
+/**
+ * The result of solving a maze: whether the end point can be reached and, if so, a shortest
+ * path to it. Depending on the solver, shortest means fewest moves or lowest cost.
+ */
+public class Solution {
+    private final long pathLength;
+    private final long pathCost;
+    private final long[] path;
+    private final long nodesExpanded;
+
+    /**
+     * Creates a solution.
+     *
+     * @param pathLength    Number of moves from start to end, or -1 if unsolvable.
+     * @param pathCost      Total cost of the cells entered from start to end, or -1 if
+     *                      unsolvable.
+     * @param path          Cell indices from start to end inclusive, or null if unsolvable or
+     *                      too long to hold in an array.
+     * @param nodesExpanded Number of cells the solver visited.
+     */
+    Solution(long pathLength, long pathCost, long[] path, long nodesExpanded) {
+        this.pathLength = pathLength;
+        this.pathCost = pathCost;
+        this.path = path;
+        this.nodesExpanded = nodesExpanded;
+    }
+
+    /**
+     * Checks whether the end point can be reached from the start point.
+     *
+     * @return true if a path exists.
+     */
+    public boolean isSolvable() {
+        return pathLength >= 0;
+    }
+
+    /**
+     * Gets the number of moves on the path.
+     *
+     * @return The number of moves from start to end, or -1 if unsolvable.
+     */
+    public long getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * Gets the cost of the path: the sum of {@link grid.TerrainType#costOf(char)} over every
+     * cell entered after the start point. On a maze without terrain this is the path length.
+     *
+     * @return The path's cost, or -1 if unsolvable.
+     */
+    public long getPathCost() {
+        return pathCost;
+    }
+
+    /**
+     * Gets the cells on the path. Each is indexed by row * columns + column.
+     *
+     * @return Cell indices from start to end inclusive, or an empty array if unsolvable.
+     * @throws IllegalStateException If the path has too many cells to fit in an array.
+     */
+    public long[] getPath() throws IllegalStateException {
+        if (pathLength < 0) {
+            return new long[0];
+        } else if (path == null) {
+            throw new IllegalStateException("Path of " + pathLength + " moves is too long.");
+        }
+        return path.clone();
+    }
+
+    /**
+     * Gets the number of cells the solver visited.
+     *
+     * @return The number of cells expanded.
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("solvable=%b moves=%d cost=%d expanded=%d", isSolvable(), pathLength,
+                pathCost, nodesExpanded);
+    }
+}
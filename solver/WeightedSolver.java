@@ -0,0 +1,138 @@
+package solver;
+
+import grid.MazeGrid;
+import grid.OffHeapBytes;
+import grid.TerrainType;
+import io.Maze;
+import metrics.Metrics;
+import metrics.Stage;
+
+import java.util.Arrays;
+
+/**
+ * Finds a cheapest path from the start point to the end point, where entering each cell costs
+ * {@link TerrainType#costOf(char)}: one for paths, more for terrain.
+ * <p>
+ * The search is Dijkstra's algorithm over a bucket queue (Dial's algorithm). Costs are small
+ * integers no larger than {@link TerrainType#MAX_COST}, so every cell waiting to be settled is
+ * within MAX_COST of the current distance, and MAX_COST + 1 buckets used round robin order them
+ * without comparisons. Entries are unboxed longs packing a cell index with the direction it was
+ * entered by. Rather than keeping tentative distances, a cell may be queued once per neighbour
+ * and is settled by the first of its entries to come out, which is one of the cheapest. Settled
+ * cells record their direction in one off-heap byte per cell, exactly as
+ * {@link BreadthFirstSolver} does, so the heap holds only the queued entries however large the
+ * maze is.
+ * </p>
+ */
+public final class WeightedSolver {
+    private static final byte UNVISITED = 0;
+    private static final byte START = 5; // Directions are stored as 1-4.
+    private static final int[] ROW_CHANGE = {-1, 1, 0, 0};
+    private static final int[] COL_CHANGE = {0, 0, -1, 1};
+    private static final int DIRECTION_BITS = 2;
+
+    private WeightedSolver() {}
+
+    /**
+     * Solves a maze from its start point.
+     *
+     * @param maze The maze to solve. Its player and traversal state are ignored.
+     * @return The solution, with the lowest possible path cost.
+     */
+    public static Solution solve(Maze maze) {
+        return solve(maze.getGrid());
+    }
+
+    /**
+     * Solves a grid from its start point.
+     *
+     * @param grid The cells to solve.
+     * @return The solution, unsolvable if the grid has no start or end point.
+     */
+    public static Solution solve(MazeGrid grid) {
+        long start = Metrics.start();
+        int cols = grid.getCols();
+        long startIndex = grid.find(MazeGrid.START);
+        long endIndex = grid.find(MazeGrid.END);
+        if (startIndex < 0 || endIndex < 0) {
+            Metrics.stop(Stage.SOLVE, start);
+            return new Solution(-1, -1, null, 0);
+        }
+
+        OffHeapBytes from = OffHeapBytes.allocate(grid.getStorageSize());
+        LongStack[] buckets = new LongStack[TerrainType.MAX_COST + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongStack();
+        }
+        buckets[0].push(startIndex << DIRECTION_BITS);
+        long queued = 1;
+        long expanded = 0;
+        boolean found = false;
+        for (long distance = 0; queued > 0 && !found; distance++) {
+            LongStack bucket = buckets[(int) (distance % buckets.length)];
+            while (!bucket.isEmpty()) {
+                long entry = bucket.pop();
+                queued--;
+                long cell = entry >>> DIRECTION_BITS;
+                int row = (int) (cell / cols);
+                int col = (int) (cell % cols);
+                long stored = grid.storageIndexOf(row, col);
+                if (from.get(stored) != UNVISITED) {
+                    continue; // Already settled by a cheaper or equal entry.
+                }
+                from.set(stored, cell == startIndex ? START
+                        : (byte) ((entry & ((1 << DIRECTION_BITS) - 1)) + 1));
+                expanded++;
+                if (cell == endIndex) {
+                    found = true;
+                    break;
+                }
+                for (int direction = 0; direction < 4; direction++) {
+                    int newRow = row + ROW_CHANGE[direction];
+                    int newCol = col + COL_CHANGE[direction];
+                    if (!grid.inBounds(newRow, newCol)) {
+                        continue;
+                    }
+                    int cost = TerrainType.costOf(grid.getCell(newRow, newCol));
+                    if (cost == 0 || from.get(grid.storageIndexOf(newRow, newCol)) != UNVISITED) {
+                        continue;
+                    }
+                    long next = (long) newRow * cols + newCol;
+                    buckets[(int) ((distance + cost) % buckets.length)]
+                            .push(next << DIRECTION_BITS | direction);
+                    queued++;
+                }
+            }
+        }
+        Metrics.NODES_EXPANDED.add(expanded);
+        Solution solution = found
+                ? BreadthFirstSolver.tracePath(grid, from, startIndex, endIndex, expanded)
+                : new Solution(-1, -1, null, expanded);
+        Metrics.stop(Stage.SOLVE, start);
+        return solution;
+    }
+
+    /**
+     * A growable stack of packed queue entries. Order within a bucket does not matter, since
+     * every entry in it has the same distance.
+     */
+    private static class LongStack {
+        private long[] elements = new long[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long value) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = value;
+        }
+
+        long pop() {
+            return elements[--size];
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package tests;
+
+import analysis.MazeAnalyser;
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import exceptions.MazeUnsolvableException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
+import grid.TerrainType;
+import grid.TiledGrid;
+import io.FileLoader;
+import io.Maze;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.IncrementalSolver;
+import solver.Solution;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Property tests that run the fast loaders and solvers against the original loader and a plain
+ * breadth-first search on seeded random mazes, so optimisations cannot quietly change results or
+ * which exception a bad maze raises.
+ */
+public class DifferentialTest {
+    private static final int LOADER_CASES = 1500;
+    private static final int SOLVER_CASES = 400;
+    private static final int TERRAIN_CASES = 600;
+    private static final int MUTATION_KINDS = 16;
+
+    Path file;
+
+    /**
+     * Creates the file that generated mazes are written to.
+     *
+     * @throws IOException If the file cannot be created.
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("maze", ".txt");
+    }
+
+    /**
+     * Removes the generated maze file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that every loader accepts the same files as the reference loader, with the same
+     * cells, and rejects the rest with the same exception. There are two deliberate differences:
+     * files with short or missing rows, which the reference fills with '\0' where the others throw
+     * MazeSizeMissmatchException, and non-numeric dimensions, on which the reference lets
+     * NumberFormatException escape where the others throw MazeMalformedException.
+     *
+     * @throws MazeSizeMissmatchException If an accepted file then fails to load.
+     * @throws IOException                If the maze file cannot be written.
+     * @throws MazeMalformedException     If an accepted file then fails to load.
+     * @throws InvalidMazeException       If an accepted file has no start or end point.
+     */
+    @Test
+    public void loadersMatchReferenceTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        Random random = new Random(38);
+        ReferenceFileLoader reference = new ReferenceFileLoader();
+        FileLoader loader = new FileLoader();
+        String filename = file.toString();
+        for (int i = 0; i < LOADER_CASES; i++) {
+            int rows = 5 + random.nextInt(30);
+            int cols = 5 + random.nextInt(70);
+            char[][] maze = random.nextBoolean()
+                    ? RandomMazes.generate(rows, cols, random.nextDouble() / 4, random.nextLong())
+                    : RandomMazes.noise(rows, cols, random.nextDouble(), random.nextLong());
+            int kind = random.nextInt(MUTATION_KINDS);
+            String text = mutate(maze, kind, random);
+            Files.write(file, text.getBytes(StandardCharsets.ISO_8859_1));
+            String message = "Case " + i + ", mutation " + kind + ":\n" + text;
+
+            Object expected = outcome(() -> reference.load(filename));
+            if (expected instanceof char[][] cells && hasEmptyCells(cells)) {
+                expected = MazeSizeMissmatchException.class;
+            } else if (expected == NumberFormatException.class) {
+                expected = MazeMalformedException.class;
+            }
+            assertOutcome(message, expected, outcome(() -> loader.load(filename)));
+            assertOutcome(message, expected,
+                    outcome(() -> toCells(loader.loadGrid(filename))));
+            assertOutcome(message, expected,
+                    outcome(() -> toCells(OffHeapGrid.map(filename))));
+
+            if (expected instanceof char[][] cells) {
+                MazeGrid grid = loader.loadGrid(filename);
+                MazeGrid plain = new CharArrayGrid(cells);
+                Assert.assertEquals(message, plain.find(MazeGrid.START), grid.find(MazeGrid.START));
+                Assert.assertEquals(message, plain.find(MazeGrid.END), grid.find(MazeGrid.END));
+                Assert.assertEquals(message, plain.count(MazeGrid.PATH),
+                        grid.count(MazeGrid.PATH));
+                Assert.assertArrayEquals(message, plain.getTraversableBitmap(),
+                        grid.getTraversableBitmap());
+            }
+        }
+    }
+
+    /**
+     * Tests that the loaders agree with each other on files holding terrain, which the reference
+     * loader predates. Terrain is placed at random, on both sides of every eight-byte word
+     * boundary and at row ends, so the word-at-a-time and byte-at-a-time paths of every loader
+     * meet it. Some files also get an invalid character among the terrain, and some are large
+     * enough to span several read chunks.
+     *
+     * @throws MazeSizeMissmatchException If an accepted file then fails to load.
+     * @throws IOException                If the maze file cannot be written.
+     * @throws MazeMalformedException     If an accepted file then fails to load.
+     * @throws InvalidMazeException       If an accepted file has no start or end point.
+     */
+    @Test
+    public void terrainLoadersAgreeTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        Random random = new Random(39);
+        TerrainType[] types = TerrainType.values();
+        FileLoader loader = new FileLoader();
+        String filename = file.toString();
+        for (int i = 0; i < TERRAIN_CASES; i++) {
+            boolean large = i % 50 == 0;
+            int rows = large ? 200 + random.nextInt(200) : 5 + random.nextInt(30);
+            int cols = large ? 200 + random.nextInt(200) : 5 + random.nextInt(70);
+            char[][] maze = RandomMazes.generate(rows, cols, random.nextDouble() / 4,
+                    random.nextLong());
+            double density = random.nextDouble();
+            for (char[] row : maze) {
+                for (int col = 0; col < cols; col++) {
+                    boolean edge = col % 8 == 0 || col % 8 == 7 || col == cols - 1;
+                    if (row[col] != 'S' && row[col] != 'E'
+                            && (edge || random.nextDouble() < density)
+                            && random.nextBoolean()) {
+                        row[col] = types[random.nextInt(types.length)].getSymbol();
+                    }
+                }
+            }
+            boolean invalid = random.nextInt(4) == 0;
+            if (invalid) {
+                int[] cell = ordinaryCell(maze, random);
+                maze[cell[0]][cell[1]] = "X0\t@s".charAt(cell[1] % 5);
+            }
+            Files.write(file, RandomMazes.toText(maze).getBytes(StandardCharsets.ISO_8859_1));
+            String message = "Case " + i + ":\n" + RandomMazes.toText(maze);
+
+            Object expected = invalid ? MazeMalformedException.class : maze;
+            assertOutcome(message, expected, outcome(() -> loader.load(filename)));
+            assertOutcome(message, expected,
+                    outcome(() -> toCells(loader.loadGrid(filename))));
+            assertOutcome(message, expected,
+                    outcome(() -> toCells(OffHeapGrid.map(filename))));
+            if (invalid) {
+                continue;
+            }
+
+            MazeGrid plain = new CharArrayGrid(maze);
+            for (MazeGrid grid : new MazeGrid[]{loader.loadGrid(filename),
+                    OffHeapGrid.map(filename)}) {
+                Assert.assertEquals(message, plain.countPaths(), grid.countPaths());
+                Assert.assertEquals(message, plain.find(MazeGrid.START), grid.find(MazeGrid.START));
+                Assert.assertEquals(message, plain.find(MazeGrid.END), grid.find(MazeGrid.END));
+                Assert.assertArrayEquals(message, plain.getTraversableBitmap(),
+                        grid.getTraversableBitmap());
+            }
+        }
+    }
+
+    /**
+     * Tests that every solver and grid layout finds a shortest path of the same length as a
+     * plain breadth-first search, or agrees that there is none.
+     *
+     * @throws InvalidMazeException If a generated maze is invalid.
+     */
+    @Test
+    public void solversMatchReferenceTest() throws InvalidMazeException {
+        Random random = new Random(3838);
+        for (int i = 0; i < SOLVER_CASES; i++) {
+            int rows = 5 + random.nextInt(40);
+            int cols = 5 + random.nextInt(40);
+            char[][] maze = random.nextBoolean()
+                    ? RandomMazes.generate(rows, cols, random.nextDouble() / 2, random.nextLong())
+                    : RandomMazes.noise(rows, cols, random.nextDouble() * 0.6, random.nextLong());
+            long expected = referenceDistance(maze);
+            String message = "Case " + i + ":\n" + RandomMazes.toText(maze);
+
+            MazeGrid grid = new CharArrayGrid(maze);
+            Solution solution = BreadthFirstSolver.solve(grid);
+            Assert.assertEquals(message, expected, solution.getPathLength());
+            assertValidPath(message, maze, grid, solution);
+            Assert.assertEquals(message, expected,
+                    BreadthFirstSolver.solve(OffHeapGrid.copyOf(grid)).getPathLength());
+            Assert.assertEquals(message, expected,
+                    BreadthFirstSolver.solve(TiledGrid.copyOf(grid, 2)).getPathLength());
+            Assert.assertEquals(message, expected,
+                    BreadthFirstSolver.solve(new Maze(maze)).getPathLength());
+            Assert.assertEquals(message, expected,
+                    new IncrementalSolver(grid).getSolution().getPathLength());
+            Assert.assertEquals(message, expected >= 0, MazeAnalyser.analyse(grid).isSolvable());
+        }
+    }
+
+    /**
+     * Tests that exploring an unsolvable maze raises MazeUnsolvableException on the first move
+     * after the last path is traversed, and that following a solution never raises it.
+     *
+     * @throws InvalidMazeException    If a generated maze is invalid.
+     * @throws MazeUnsolvableException If following a solution raises it.
+     */
+    @Test
+    public void unsolvableSemanticsTest() throws InvalidMazeException, MazeUnsolvableException {
+        Random random = new Random(380);
+        for (int i = 0; i < 50; i++) {
+            int rows = 5 + 2 * random.nextInt(15);
+            int cols = 5 + 2 * random.nextInt(15);
+            char[][] cells = RandomMazes.generate(rows, cols, random.nextDouble() / 4,
+                    random.nextLong());
+
+            Maze solvable = new Maze(cells);
+            for (long index : BreadthFirstSolver.solve(solvable).getPath()) {
+                solvable.movePlayer((int) (index / cols) - solvable.getPlayer().getPlayerRow(),
+                        (int) (index % cols) - solvable.getPlayer().getPlayerCol());
+            }
+            Assert.assertTrue(solvable.hasBeenSolved());
+
+            // Move the end point into the bottom right corner, which is walled in.
+            cells[rows - 2][cols - 2] = ' ';
+            cells[rows - 1][cols - 1] = 'E';
+            Maze unsolvable = new Maze(cells);
+            Assert.assertFalse(BreadthFirstSolver.solve(unsolvable).isSolvable());
+            long paths = unsolvable.getGrid().count(MazeGrid.PATH);
+            long[] visited = {0};
+            Assert.assertThrows(MazeUnsolvableException.class,
+                    () -> {explore(unsolvable, visited);}
+            );
+            Assert.assertEquals(paths, visited[0]);
+        }
+    }
+
+    /**
+     * Walks a maze depth first through {@link Maze#playMaze(char)}, backtracking out of dead
+     * ends, until every reachable cell has been entered.
+     *
+     * @param maze    The maze to walk.
+     * @param visited Updated with the number of path cells entered so far.
+     * @throws MazeUnsolvableException If the maze raises it.
+     */
+    private static void explore(Maze maze, long[] visited) throws MazeUnsolvableException {
+        int cols = maze.getDimensions()[1];
+        boolean[] seen = new boolean[maze.getDimensions()[0] * cols];
+        int[][] moves = {{-1, 0, 'w'}, {1, 0, 's'}, {0, -1, 'a'}, {0, 1, 'd'}};
+        ArrayDeque<int[]> trail = new ArrayDeque<>();
+        seen[maze.getPlayer().getPlayerRow() * cols + maze.getPlayer().getPlayerCol()] = true;
+        while (true) {
+            int row = maze.getPlayer().getPlayerRow();
+            int col = maze.getPlayer().getPlayerCol();
+            int[] next = null;
+            for (int[] move : moves) {
+                int nextRow = row + move[0];
+                int nextCol = col + move[1];
+                if (maze.validMove(nextRow, nextCol) && !seen[nextRow * cols + nextCol]) {
+                    next = move;
+                    break;
+                }
+            }
+            if (next == null) {
+                if (trail.isEmpty()) {
+                    return;
+                }
+                int[] back = trail.pop();
+                maze.playMaze((char) back[2]);
+                continue;
+            }
+            maze.playMaze((char) next[2]);
+            seen[maze.getPlayer().getPlayerRow() * cols + maze.getPlayer().getPlayerCol()] = true;
+            if (maze.getGrid().getCell(row + next[0], col + next[1]) == MazeGrid.PATH) {
+                visited[0]++;
+            }
+            trail.push(moves[Arrays.asList(moves).indexOf(next) ^ 1]);
+        }
+    }
+
+    /**
+     * Applies one kind of fault to a maze and formats it as a maze file. Each fault on its own
+     * determines which exception, if any, the file should raise.
+     *
+     * @param maze   The maze's cells. Not modified.
+     * @param kind   Which fault to apply, 0 for none.
+     * @param random Chooses where the fault goes.
+     * @return The file contents.
+     */
+    private static String mutate(char[][] maze, int kind, Random random) {
+        List<StringBuilder> rows = new ArrayList<>();
+        for (char[] row : maze) {
+            rows.add(new StringBuilder().append(row));
+        }
+        int cols = maze[0].length;
+        int row = random.nextInt(rows.size());
+        int col = random.nextInt(cols);
+        int[] ordinary = ordinaryCell(maze, random);
+        String header = maze.length + " " + cols;
+        switch (kind) {
+            case 1 -> rows.get(ordinary[0]).setCharAt(ordinary[1], 'S');
+            case 2 -> rows.get(ordinary[0]).setCharAt(ordinary[1], 'E');
+            case 3 -> replaceAll(rows, 'S', ' ');
+            case 4 -> replaceAll(rows, 'E', '#');
+            case 5 -> rows.get(ordinary[0]).setCharAt(ordinary[1], "X0\t@s".charAt(col % 5));
+            case 6 -> rows.get(row).insert(col, '#');
+            case 7 -> rows.get(ordinary[0]).deleteCharAt(ordinary[1]);
+            case 8 -> rows.add(row, new StringBuilder("#".repeat(cols)));
+            case 9 -> rows.remove(rowWithoutEndpoints(maze, random));
+            case 11 -> header = header + " 1";
+            case 12 -> header = (maze.length + 1) + " " + cols;
+            case 13 -> header = random.nextBoolean() ? "a " + cols : maze.length + " " + cols + "x";
+            default -> {}
+        }
+        StringBuilder text = new StringBuilder(header).append('\n');
+        for (StringBuilder line : rows) {
+            text.append(line).append('\n');
+        }
+        if (kind == 10) {
+            text.setLength(text.length() - 1);
+        } else if (kind == 14) {
+            text.append("\n".repeat(1 + random.nextInt(3)));
+        } else if (kind == 15) {
+            return text.toString().replace("\n", "\r\n");
+        }
+        return text.toString();
+    }
+
+    private static int[] ordinaryCell(char[][] maze, Random random) {
+        while (true) {
+            int row = random.nextInt(maze.length);
+            int col = random.nextInt(maze[0].length);
+            if (maze[row][col] != 'S' && maze[row][col] != 'E') {
+                return new int[]{row, col};
+            }
+        }
+    }
+
+    private static int rowWithoutEndpoints(char[][] maze, Random random) {
+        while (true) {
+            int row = random.nextInt(maze.length);
+            String cells = new String(maze[row]);
+            if (cells.indexOf('S') < 0 && cells.indexOf('E') < 0) {
+                return row;
+            }
+        }
+    }
+
+    private static void replaceAll(List<StringBuilder> rows, char from, char to) {
+        for (StringBuilder row : rows) {
+            for (int col = 0; col < row.length(); col++) {
+                if (row.charAt(col) == from) {
+                    row.setCharAt(col, to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a load and captures either the cells or the class of the exception it threw.
+     *
+     * @param load The load to run.
+     * @return The loaded cells, or the exception's class.
+     */
+    private static Object outcome(Callable<char[][]> load) {
+        try {
+            return load.call();
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private static void assertOutcome(String message, Object expected, Object actual) {
+        if (expected instanceof char[][] cells && actual instanceof char[][] actualCells) {
+            Assert.assertTrue(message, Arrays.deepEquals(cells, actualCells));
+        } else {
+            Assert.assertEquals(message, expected, actual);
+        }
+    }
+
+    private static boolean hasEmptyCells(char[][] cells) {
+        for (char[] row : cells) {
+            for (char cell : row) {
+                if (cell == '\0') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static char[][] toCells(MazeGrid grid) {
+        char[][] cells = new char[grid.getRows()][grid.getCols()];
+        for (int row = 0; row < cells.length; row++) {
+            for (int col = 0; col < cells[row].length; col++) {
+                cells[row][col] = grid.getCell(row, col);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finds the number of moves from the start point to the end point with a textbook
+     * breadth-first search. Only paths, the start point and the end point are open.
+     *
+     * @param maze The maze's cells.
+     * @return The number of moves, or -1 if the end point cannot be reached.
+     */
+    private static long referenceDistance(char[][] maze) {
+        int rows = maze.length;
+        int cols = maze[0].length;
+        int[] distance = new int[rows * cols];
+        Arrays.fill(distance, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if (maze[cell / cols][cell % cols] == 'S') {
+                distance[cell] = 0;
+                queue.add(cell);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int row = cell / cols;
+            int col = cell % cols;
+            if (maze[row][col] == 'E') {
+                return distance[cell];
+            }
+            int[][] neighbours = {{row - 1, col}, {row + 1, col}, {row, col - 1}, {row, col + 1}};
+            for (int[] next : neighbours) {
+                if (next[0] >= 0 && next[0] < rows && next[1] >= 0 && next[1] < cols
+                        && isOpen(maze[next[0]][next[1]])
+                        && distance[next[0] * cols + next[1]] < 0) {
+                    distance[next[0] * cols + next[1]] = distance[cell] + 1;
+                    queue.add(next[0] * cols + next[1]);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isOpen(char cell) {
+        return cell == ' ' || cell == 'S' || cell == 'E';
+    }
+
+    private static void assertValidPath(String message, char[][] maze, MazeGrid grid,
+                                        Solution solution) {
+        long[] path = solution.getPath();
+        if (!solution.isSolvable()) {
+            Assert.assertEquals(message, 0, path.length);
+            return;
+        }
+        int cols = maze[0].length;
+        Assert.assertEquals(message, solution.getPathLength() + 1, path.length);
+        Assert.assertEquals(message, grid.find(MazeGrid.START), path[0]);
+        Assert.assertEquals(message, grid.find(MazeGrid.END), path[path.length - 1]);
+        for (int i = 0; i < path.length; i++) {
+            int row = (int) (path[i] / cols);
+            Assert.assertTrue(message, isOpen(maze[row][(int) (path[i] % cols)]));
+            if (i > 0) {
+                long rowStep = Math.abs(path[i] / cols - path[i - 1] / cols);
+                long colStep = Math.abs(path[i] % cols - path[i - 1] % cols);
+                Assert.assertEquals(message, 1, rowStep + colStep);
+            }
+        }
+    }
+}
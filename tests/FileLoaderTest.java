@@ -1,13 +1,17 @@
 package tests;
 
+import grid.CharArrayGrid;
+import grid.MazeGrid;
 import io.FileLoader;
 import org.junit.*;
 
+import exceptions.InvalidMazeException;
 import exceptions.MazeSizeMissmatchException;
 import exceptions.MazeMalformedException;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
 
 public class FileLoaderTest {
     FileLoader fileLoader;
@@ -50,6 +54,8 @@ public class FileLoaderTest {
     // - No End Point.
     // - Incorrect symbol in maze.
     // - Maze is unsolvable.
+    // - Dimensions exceed the configured maximum.
+    // - Dimensions far larger than the file.
 
     /**
      * Tests that FileNotFoundException is thrown when filepath does not exist.
@@ -136,4 +142,54 @@ public class FileLoaderTest {
                 () -> {fileLoader.load("src/maps/tests/InvalidCharacterSmallMap.txt");}
         );
     }
+
+    /**
+     * Tests that dimensions over the configured maximum are rejected before the maze is read.
+     */
+    @Test
+    public void maxDimensionTest() {
+        Assert.assertThrows(MazeMalformedException.class,
+                () -> {new FileLoader(5).load("src/maps/SmallMap.txt");}
+        );
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> {new FileLoader(0);}
+        );
+    }
+
+    /**
+     * Tests that a header claiming far more cells than the file holds is rejected, by the default
+     * maximum dimension or, with no practical maximum, by the file length check.
+     */
+    @Test
+    public void bogusDimensionsTest() {
+        Assert.assertThrows(MazeMalformedException.class,
+                () -> {fileLoader.load("src/maps/tests/BogusDimensionsSmallMap.txt");}
+        );
+        Assert.assertThrows(MazeSizeMissmatchException.class,
+                () -> {new FileLoader(Integer.MAX_VALUE)
+                        .load("src/maps/tests/BogusDimensionsSmallMap.txt");}
+        );
+    }
+
+    /**
+     * Tests that the start point, end point, path count and traversable cells found while
+     * validating match a scan of the loaded cells.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the loaded maze is invalid.
+     */
+    @Test
+    public void loadGridTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        MazeGrid scanned = fileLoader.loadGrid("src/maps/LargeMap.txt");
+        MazeGrid loaded = new CharArrayGrid(fileLoader.load("src/maps/LargeMap.txt"));
+
+        Assert.assertEquals(loaded.find(MazeGrid.START), scanned.find(MazeGrid.START));
+        Assert.assertEquals(loaded.find(MazeGrid.END), scanned.find(MazeGrid.END));
+        Assert.assertEquals(loaded.count(MazeGrid.PATH), scanned.count(MazeGrid.PATH));
+        Assert.assertTrue(Arrays.equals(loaded.getTraversableBitmap(),
+                scanned.getTraversableBitmap()));
+    }
 }
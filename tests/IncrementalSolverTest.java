@@ -0,0 +1,110 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeUnsolvableException;
+import io.Maze;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.IncrementalSolver;
+
+public class IncrementalSolverTest {
+    char[][] charMaze;
+
+    /**
+     * Initialises the maze layout used for testing.
+     */
+    @Before
+    public void setUp() {
+        charMaze = new char[][]{
+                {'#', '#', '#', '#', '#', '#', '#'},
+                {'#', 'S', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', '#', '#', ' ', '#'},
+                {'#', ' ', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', ' ', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#', '#', '#'}
+        };
+    }
+
+    /**
+     * Tests that the solver follows walls and paths added through the maze, matching a full
+     * solve after every edit.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void editsKeepSolverInStepTest() throws InvalidMazeException {
+        Maze maze = new Maze(charMaze);
+        IncrementalSolver solver = IncrementalSolver.attach(maze);
+        Assert.assertEquals(12, solver.getSolution().getPathLength());
+        // The first solve expands every one of the 17 open cells.
+        Assert.assertEquals(17, solver.getSolution().getNodesExpanded());
+
+        // A shortcut through the middle wall.
+        Assert.assertTrue(maze.setPath(3, 2));
+        Assert.assertEquals(BreadthFirstSolver.solve(maze.getGrid()).getPathLength(),
+                solver.getSolution().getPathLength());
+        Assert.assertEquals(8, solver.getSolution().getPathLength());
+        Assert.assertTrue(solver.getSolution().getNodesExpanded() > 0);
+        Assert.assertTrue(solver.getSolution().getNodesExpanded() < 17);
+
+        // Cut the only corridor out of the start point.
+        Assert.assertTrue(maze.setWall(2, 1));
+        Assert.assertFalse(solver.isSolvable());
+        Assert.assertEquals(-1, solver.getDistance(5, 5));
+        Assert.assertFalse(BreadthFirstSolver.solve(maze.getGrid()).isSolvable());
+
+        Assert.assertTrue(maze.setPath(2, 1));
+        Assert.assertTrue(solver.isSolvable());
+        Assert.assertEquals(8, solver.getSolution().getPathLength());
+        Assert.assertEquals(3, solver.getDistance(3, 2));
+    }
+
+    /**
+     * Tests that edits which would move the start or end point, trap the player or fall outside
+     * the maze are rejected, and that repeating an edit changes nothing.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the maze is found unsolvable while moving.
+     */
+    @Test
+    public void invalidEditsTest() throws InvalidMazeException, MazeUnsolvableException {
+        Maze maze = new Maze(charMaze);
+        maze.playMaze('s');
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {maze.setWall(1, 1);});
+        Assert.assertThrows(IllegalArgumentException.class, () -> {maze.setPath(5, 5);});
+        Assert.assertThrows(IllegalArgumentException.class, () -> {maze.setWall(2, 1);});
+        Assert.assertThrows(IllegalArgumentException.class, () -> {maze.setPath(7, 0);});
+        Assert.assertFalse(maze.setWall(0, 0));
+        Assert.assertFalse(maze.setPath(3, 3));
+    }
+
+    /**
+     * Tests that walling over traversed paths keeps the unsolvable check correct.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the maze is found unsolvable while moving.
+     */
+    @Test
+    public void editsKeepPathCountsTest() throws InvalidMazeException, MazeUnsolvableException {
+        Maze maze = new Maze(charMaze);
+        for (char input : "ssssdd".toCharArray()) {
+            maze.playMaze(input);
+        }
+        // Leave only the traversed paths and the cell under the player.
+        for (int row = 1; row < 6; row++) {
+            for (int col = 3; col < 6; col++) {
+                if (!(row == 5 && col == 3) && !(row == 5 && col == 5)) {
+                    maze.setWall(row, col);
+                }
+            }
+        }
+        Assert.assertTrue(maze.allPathsTraversed());
+        Assert.assertFalse(maze.getComponentAt(4, 3).isTraversable());
+
+        maze.setPath(4, 3);
+        Assert.assertFalse(maze.allPathsTraversed());
+        Assert.assertFalse(maze.getComponentAt(4, 3).isTraversedOnce());
+    }
+}
@@ -0,0 +1,75 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeUnsolvableException;
+import io.InputPipeline;
+import io.Maze;
+import org.junit.*;
+
+public class InputPipelineTest {
+    Maze maze;
+    InputPipeline pipeline;
+    int renders;
+
+    /**
+     * Initialises the maze and a pipeline that counts renders.
+     */
+    @Before
+    public void setUp() throws InvalidMazeException {
+        char[][] charMaze = {
+                {'#', '#', '#', '#', '#', '#', '#'},
+                {'#', 'S', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', '#', '#', ' ', '#'},
+                {'#', ' ', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', ' ', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#', '#', '#'}
+        };
+        maze = new Maze(charMaze);
+        renders = 0;
+        pipeline = new InputPipeline(maze, () -> renders++);
+    }
+
+    /**
+     * Tests that a whole string of moves is applied with a single render.
+     *
+     * @throws MazeUnsolvableException If maze is unsolvable.
+     */
+    @Test
+    public void batchRendersOnceTest() throws MazeUnsolvableException {
+        pipeline.submit("ssss");
+        pipeline.submit('d');
+
+        Assert.assertEquals(5, pipeline.drain());
+        Assert.assertEquals(1, renders);
+        Assert.assertEquals(5, maze.getPlayer().getPlayerRow());
+        Assert.assertEquals(2, maze.getPlayer().getPlayerCol());
+        Assert.assertFalse(pipeline.hasQueuedInput());
+    }
+
+    /**
+     * Tests that draining with nothing queued neither moves nor renders.
+     *
+     * @throws MazeUnsolvableException If maze is unsolvable.
+     */
+    @Test
+    public void emptyDrainTest() throws MazeUnsolvableException {
+        Assert.assertEquals(0, pipeline.drain());
+        Assert.assertEquals(0, renders);
+    }
+
+    /**
+     * Tests that inputs after the maze is solved are discarded.
+     *
+     * @throws MazeUnsolvableException If maze is unsolvable.
+     */
+    @Test
+    public void stopsWhenSolvedTest() throws MazeUnsolvableException {
+        pipeline.submit("ssssddwwddss" + "wwww");
+
+        Assert.assertEquals(12, pipeline.drain());
+        Assert.assertTrue(maze.hasBeenSolved());
+        Assert.assertEquals(0, pipeline.drain());
+        Assert.assertEquals(1, renders);
+    }
+}
@@ -0,0 +1,116 @@
+package tests;
+
+import analysis.MazeAnalyser;
+import analysis.MazeAnalysis;
+import exceptions.InvalidMazeException;
+import io.Maze;
+import org.junit.*;
+
+public class MazeAnalyserTest {
+    char[][] charMaze;
+
+    /**
+     * Initialises the maze layout used for testing. It is a perfect maze: a single corridor
+     * with one dead end.
+     */
+    @Before
+    public void setUp() {
+        charMaze = new char[][]{
+                {'#', '#', '#', '#', '#', '#', '#'},
+                {'#', 'S', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', '#', '#', ' ', '#'},
+                {'#', ' ', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', ' ', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#', '#', '#'}
+        };
+    }
+
+    /**
+     * Tests that a maze without loops is reported as perfect, with every corridor cell between
+     * the start and end points as a chokepoint.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void perfectMazeTest() throws InvalidMazeException {
+        MazeAnalysis analysis = MazeAnalyser.analyse(new Maze(charMaze));
+
+        Assert.assertTrue(analysis.isPerfect());
+        Assert.assertTrue(analysis.isSolvable());
+        Assert.assertEquals(0, analysis.getLoopCount());
+        Assert.assertArrayEquals(new int[]{17}, analysis.getComponentSizes());
+
+        int[] chokepoints = analysis.getChokepoints();
+        Assert.assertEquals(11, chokepoints.length); // The path has 13 cells including S and E.
+        Assert.assertEquals(2 * 7 + 1, chokepoints[0]); // First cell below the start point.
+        Assert.assertEquals(4 * 7 + 5, chokepoints[chokepoints.length - 1]); // Above the end.
+        Assert.assertFalse(analysis.isArticulationPoint(1, 3)); // Dead end.
+        Assert.assertTrue(analysis.isArticulationPoint(1, 4));
+    }
+
+    /**
+     * Tests that opening a wall to create a loop removes the chokepoints inside the loop.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void loopTest() throws InvalidMazeException {
+        charMaze[4][4] = ' '; // Joins (4, 3), (3, 4) and (4, 5), closing two loops.
+
+        MazeAnalysis analysis = MazeAnalyser.analyse(new Maze(charMaze));
+
+        Assert.assertFalse(analysis.isPerfect());
+        Assert.assertEquals(2, analysis.getLoopCount());
+        Assert.assertFalse(analysis.isArticulationPoint(3, 4)); // Now on a loop.
+        Assert.assertTrue(analysis.isArticulationPoint(4, 3)); // Where the loops meet the corridor.
+        // Seven corridor cells from the start point to (4, 3), plus the cell above the end point.
+        Assert.assertEquals(8, analysis.getChokepoints().length);
+    }
+
+    /**
+     * Tests that separate regions are reported as separate components and an unreachable end
+     * point makes the maze unsolvable.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void componentsTest() throws InvalidMazeException {
+        charMaze[5][3] = '#'; // Cut the corridor in two.
+
+        MazeAnalysis analysis = MazeAnalyser.analyse(new Maze(charMaze));
+
+        Assert.assertFalse(analysis.isSolvable());
+        Assert.assertArrayEquals(new int[]{6, 10}, analysis.getComponentSizes());
+        Assert.assertEquals(0, analysis.getComponentOf(1, 1));
+        Assert.assertEquals(1, analysis.getComponentOf(5, 5));
+        Assert.assertEquals(-1, analysis.getComponentOf(0, 0));
+        Assert.assertEquals(0, analysis.getChokepoints().length);
+    }
+
+    /**
+     * Tests that a corridor millions of cells long does not overflow the stack.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void deepCorridorTest() throws InvalidMazeException {
+        int size = 2001;
+        char[][] serpentine = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                boolean corridor = row % 2 == 1 && col > 0 && col < size - 1;
+                boolean turn = row % 4 == 2 && col == size - 2 || row % 4 == 0 && row > 0
+                        && row < size - 1 && col == 1;
+                serpentine[row][col] = corridor || turn ? ' ' : '#';
+            }
+        }
+        serpentine[1][1] = 'S';
+        serpentine[size - 2][1] = 'E'; // The last corridor runs right to left.
+
+        MazeAnalysis analysis = MazeAnalyser.analyse(new Maze(serpentine));
+
+        Assert.assertTrue(analysis.isPerfect());
+        Assert.assertEquals(analysis.getOpenCellCount() - 2, analysis.getChokepoints().length);
+    }
+}
@@ -0,0 +1,99 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeUnsolvableException;
+import io.Maze;
+import io.MazeImageExporter;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class MazeImageExporterTest {
+    char[][] charMaze;
+
+    /**
+     * Initialises the maze layout used for testing.
+     */
+    @Before
+    public void setUp() {
+        charMaze = new char[][]{
+                {'#', '#', '#', '#', '#'},
+                {'#', 'S', ' ', ' ', '#'},
+                {'#', '#', '#', ' ', '#'},
+                {'#', ' ', ' ', 'E', '#'},
+                {'#', '#', '#', '#', '#'}
+        };
+    }
+
+    /**
+     * Tests that a written PNG decodes to the cell colours with the solution drawn over them.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     * @throws IOException          If the in-memory streams fail.
+     */
+    @Test
+    public void writePngTest() throws InvalidMazeException, IOException {
+        Maze maze = new Maze(charMaze);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MazeImageExporter(3, false).writePng(maze, BreadthFirstSolver.solve(maze).getPath(),
+                out);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(15, image.getWidth());
+        Assert.assertEquals(15, image.getHeight());
+        Assert.assertEquals(Color.gray.getRGB(), image.getRGB(1, 1));
+        Assert.assertEquals(Color.white.getRGB(), image.getRGB(5, 11));
+        // Every cell of the solution, start and end included, is in the player's colour.
+        Assert.assertEquals(Color.green.getRGB(), image.getRGB(4, 4));
+        Assert.assertEquals(Color.green.getRGB(), image.getRGB(11, 5));
+        Assert.assertEquals(Color.green.getRGB(), image.getRGB(11, 11));
+    }
+
+    /**
+     * Tests that traversal colours are drawn under the player, and that the streamed PNG matches
+     * the single rendered image.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the test moves make the maze unsolvable.
+     * @throws IOException             If the in-memory streams fail.
+     */
+    @Test
+    public void traversalOverlayTest() throws InvalidMazeException, MazeUnsolvableException,
+            IOException {
+        Maze maze = new Maze(charMaze);
+        maze.playMaze('d');
+        maze.playMaze('d');
+        maze.playMaze('a');
+        MazeImageExporter exporter = new MazeImageExporter(1, true);
+        BufferedImage rendered = exporter.render(maze, null);
+
+        Assert.assertEquals(Color.blue.getRGB(), rendered.getRGB(3, 1));
+        Assert.assertEquals(Color.green.getRGB(), rendered.getRGB(2, 1));
+        Assert.assertEquals(Color.white.getRGB(), rendered.getRGB(3, 2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.writePng(maze, null, out);
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        for (int y = 0; y < rendered.getHeight(); y++) {
+            for (int x = 0; x < rendered.getWidth(); x++) {
+                Assert.assertEquals(rendered.getRGB(x, y), written.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Tests that cell sizes below one are rejected.
+     */
+    @Test
+    public void invalidCellSizeTest() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> {new MazeImageExporter(0, false);}
+        );
+    }
+}
@@ -0,0 +1,173 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeUnsolvableException;
+import grid.MazeGrid;
+import io.Maze;
+import io.MazeSnapshot;
+import org.junit.*;
+
+import java.io.IOException;
+
+public class MazeSnapshotTest {
+    char[][] charMaze;
+    Maze maze;
+
+    /**
+     * Initialises the maze used for testing.
+     */
+    @Before
+    public void setUp() throws InvalidMazeException {
+        charMaze = new char[][]{
+                {'#', '#', '#', '#', '#', '#', '#'},
+                {'#', 'S', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', '#', '#', ' ', '#'},
+                {'#', ' ', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', ' ', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#', '#', '#'}
+        };
+        maze = new Maze(charMaze);
+    }
+
+    /**
+     * Tests that a restored maze matches the captured one, including backtracked cells.
+     *
+     * @throws MazeUnsolvableException If the maze is found unsolvable.
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws IOException             If the snapshot cannot be decoded.
+     */
+    @Test
+    public void captureAndRestoreTest() throws MazeUnsolvableException, InvalidMazeException,
+            IOException {
+        for (char input : "sssswsd".toCharArray()) {
+            maze.playMaze(input);
+        }
+        MazeSnapshot snapshot = MazeSnapshot.fromBytes(MazeSnapshot.capture(maze).toBytes());
+
+        Maze restored = new Maze(charMaze);
+        snapshot.restore(restored);
+
+        Assert.assertEquals(maze.getPlayer().getPlayerRow(), restored.getPlayer().getPlayerRow());
+        Assert.assertEquals(maze.getPlayer().getPlayerCol(), restored.getPlayer().getPlayerCol());
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 7; col++) {
+                if (charMaze[row][col] != '#') {
+                    Assert.assertEquals(maze.getComponentAt(row, col).isTraversedOnce(),
+                            restored.getComponentAt(row, col).isTraversedOnce());
+                    Assert.assertEquals(maze.getComponentAt(row, col).getComponentRep(),
+                            restored.getComponentAt(row, col).getComponentRep());
+                }
+            }
+        }
+        Assert.assertEquals(snapshot, MazeSnapshot.capture(restored));
+    }
+
+    /**
+     * Tests that restoring onto the same maze rolls back moves made after the snapshot.
+     *
+     * @throws MazeUnsolvableException If the maze is found unsolvable.
+     */
+    @Test
+    public void rollBackTest() throws MazeUnsolvableException {
+        maze.playMaze('s');
+        MazeSnapshot snapshot = MazeSnapshot.capture(maze);
+        for (char input : "sssdd".toCharArray()) {
+            maze.playMaze(input);
+        }
+
+        snapshot.restore(maze);
+
+        Assert.assertEquals(2, maze.getPlayer().getPlayerRow());
+        Assert.assertEquals(1, maze.getPlayer().getPlayerCol());
+        Assert.assertFalse(maze.getComponentAt(5, 1).isTraversedOnce());
+        Assert.assertTrue(maze.getComponentAt(2, 1).isTraversedOnce());
+    }
+
+    /**
+     * Tests that a snapshot cannot be restored onto a different maze.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void differentMazeTest() throws InvalidMazeException {
+        MazeSnapshot snapshot = MazeSnapshot.capture(maze);
+        charMaze[5][5] = ' ';
+        charMaze[3][5] = 'E';
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> {snapshot.restore(new Maze(charMaze));}
+        );
+    }
+
+    /**
+     * Tests that a snapshot of a maze with the same size and end points, but with a wall where the
+     * captured maze was traversed, is rejected without marking the wall or changing the maze.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the maze is found unsolvable.
+     */
+    @Test
+    public void wallInTraversedCellTest() throws InvalidMazeException, MazeUnsolvableException {
+        for (char input : "ss".toCharArray()) {
+            maze.playMaze(input);
+        }
+        MazeSnapshot snapshot = MazeSnapshot.capture(maze);
+        charMaze[2][1] = '#';
+        charMaze[3][2] = ' ';
+        Maze other = new Maze(charMaze);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {snapshot.restore(other);});
+        Assert.assertFalse(other.getComponentAt(2, 1).isTraversedOnce());
+        Assert.assertEquals(1, other.getPlayer().getPlayerRow());
+    }
+
+    /**
+     * Tests that a lightly explored million-cell maze produces a snapshot of a few KB.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the maze is found unsolvable.
+     */
+    @Test
+    public void largeMazeSizeTest() throws InvalidMazeException, MazeUnsolvableException {
+        Maze large = new Maze(new OpenGrid(1000, 1000));
+        for (int i = 0; i < 500; i++) {
+            large.playMaze(i % 2 == 0 ? 's' : 'd');
+        }
+
+        byte[] bytes = MazeSnapshot.capture(large).toBytes();
+
+        Assert.assertTrue(bytes.length < 8 * 1024);
+    }
+
+    /**
+     * An open grid with a start point in the top-left and an end point in the bottom-right.
+     */
+    private static class OpenGrid implements MazeGrid {
+        private final int rows;
+        private final int cols;
+
+        OpenGrid(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        @Override
+        public int getRows() {
+            return rows;
+        }
+
+        @Override
+        public int getCols() {
+            return cols;
+        }
+
+        @Override
+        public char getCell(int row, int col) {
+            if (row == 0 && col == 0) {
+                return START;
+            }
+            return row == rows - 1 && col == cols - 1 ? END : PATH;
+        }
+    }
+}
@@ -116,5 +116,23 @@ public class MazeTest {
         Assert.assertTrue(wall instanceof Wall);
         Assert.assertTrue(endPoint instanceof EndPoint);
     }
-}
 
+    /**
+     * Checks that components are only created for cells that are visited or requested, and that
+     * repeated requests return the same instance.
+     *
+     * @throws MazeUnsolvableException  If maze is unsolvable.
+     */
+    @Test
+    public void testLazyMaterialisation() throws MazeUnsolvableException {
+        Assert.assertEquals(2, maze.getMaterialisedCount()); // Only start and end points.
+
+        maze.movePlayer(1, 0); // Visit one path.
+        maze.movePlayer(0, 1); // Bump into a wall, which is not visited.
+        Assert.assertEquals(3, maze.getMaterialisedCount());
+
+        MazeComponent wall = maze.getComponentAt(0, 0);
+        Assert.assertSame(wall, maze.getComponentAt(0, 0));
+        Assert.assertEquals(4, maze.getMaterialisedCount());
+    }
+}
@@ -0,0 +1,214 @@
+package tests;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.MazeGrid;
+import io.FileLoader;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.MetricsReporter;
+import metrics.Stage;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+public class MetricsTest {
+
+    /**
+     * Clears the process-wide metrics, which other tests may have recorded into.
+     */
+    @Before
+    public void setUp() {
+        Metrics.reset();
+    }
+
+    /**
+     * Clears anything this test recorded into the process-wide metrics.
+     */
+    @After
+    public void tearDown() {
+        Metrics.reset();
+    }
+
+    /**
+     * Tests that values below 64 are kept exactly, that 64 starts the first shared bucket, and
+     * that every value, up to the largest, is reported as the top of a bucket that holds it and
+     * is at most 1/32 above it.
+     */
+    @Test
+    public void bucketBoundsTest() {
+        for (long value = 0; value < 64; value++) {
+            Assert.assertEquals(value, bucketBound(value));
+        }
+        Assert.assertEquals(65, bucketBound(64));
+        Assert.assertEquals(65, bucketBound(65));
+        Assert.assertEquals(67, bucketBound(66));
+
+        Histogram histogram = new Histogram();
+        histogram.record(63);
+        histogram.record(64);
+        Assert.assertEquals(63, histogram.getPercentile(50));
+        Assert.assertEquals(64, histogram.getPercentile(100));
+
+        long[] values = {100, 127, 128, 1_000, 4_095, 4_096, 1_000_000, 123_456_789_012L,
+                1L << 40, (1L << 40) - 1, (1L << 40) + 1, 1L << 62};
+        for (long value : values) {
+            long bound = bucketBound(value);
+            String message = "Value " + value + ", bound " + bound;
+            Assert.assertTrue(message, bound >= value);
+            Assert.assertTrue(message, bound - value <= value / 32);
+            Assert.assertEquals(message, bound, bucketBound(bound));
+            Assert.assertTrue(message, bucketBound(bound + 1) > bound);
+        }
+        Assert.assertEquals(Long.MAX_VALUE, bucketBound(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests percentiles, the mean and the maximum of a uniform and a long-tailed distribution.
+     */
+    @Test
+    public void percentilesTest() {
+        Histogram uniform = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            uniform.record(value);
+        }
+        Assert.assertEquals(10_000, uniform.getCount());
+        Assert.assertEquals(5_000.5, uniform.getMean(), 1e-9);
+        Assert.assertEquals(10_000, uniform.getMax());
+        Assert.assertEquals(1, uniform.getPercentile(0));
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(10_000 * percentile / 100);
+            long reported = uniform.getPercentile(percentile);
+            Assert.assertTrue("p" + percentile + "=" + reported,
+                    reported >= exact && reported <= exact * 1.03);
+        }
+        Assert.assertEquals(10_000, uniform.getPercentile(100));
+
+        Histogram tailed = new Histogram();
+        for (int i = 0; i < 990; i++) {
+            tailed.record(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            tailed.record(1_000_000 + i);
+        }
+        tailed.record(-5);
+        Assert.assertEquals(0, tailed.getPercentile(0));
+        Assert.assertEquals(101, tailed.getPercentile(50));
+        Assert.assertEquals(101, tailed.getPercentile(99));
+        long tail = tailed.getPercentile(99.9);
+        Assert.assertTrue("p99.9=" + tail, tail >= 1_000_000 && tail <= 1_030_000);
+        Assert.assertEquals(1_000_009, tailed.getPercentile(100));
+    }
+
+    /**
+     * Tests that a reset histogram reports nothing, then counts again from scratch.
+     */
+    @Test
+    public void resetTest() {
+        Histogram histogram = new Histogram();
+        histogram.record(5);
+        histogram.record(5_000);
+        histogram.reset();
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getMean(), 0);
+        Assert.assertEquals(0, histogram.getPercentile(50));
+
+        histogram.record(7);
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(7, histogram.getPercentile(99));
+        Assert.assertEquals(7, histogram.getMax());
+    }
+
+    /**
+     * Tests the text and JSON dumps: one entry per stage in declaration order with every
+     * percentile, then the counters, and that closing a reporter writes a final dump.
+     */
+    @Test
+    public void dumpFormatTest() {
+        Metrics.getLatency(Stage.LOAD).record(2_047);
+        Metrics.getLatency(Stage.SOLVE).record(40);
+        Metrics.getLatency(Stage.SOLVE).record(60);
+
+        String[] lines = MetricsReporter.toText().split("\\R");
+        Assert.assertEquals(1 + Stage.values().length + Metrics.getCounters().length,
+                lines.length);
+        Assert.assertEquals("maze metrics (latencies in microseconds)", lines[0]);
+        Assert.assertEquals("  load     count=1 mean=2.0 p50=2.0 p90=2.0 p99=2.0 p99_9=2.0"
+                + " max=2.0", lines[1 + Stage.LOAD.ordinal()]);
+        Assert.assertEquals("  solve    count=2 mean=0.1 p50=0.0 p90=0.1 p99=0.1 p99_9=0.1"
+                + " max=0.1", lines[1 + Stage.SOLVE.ordinal()]);
+        Assert.assertEquals("  simulate count=0 mean=0.0 p50=0.0 p90=0.0 p99=0.0 p99_9=0.0"
+                + " max=0.0", lines[1 + Stage.SIMULATE.ordinal()]);
+        Assert.assertEquals("  nodesExpanded=0", lines[lines.length - 2]);
+        Assert.assertEquals("  bytesRead=0", lines[lines.length - 1]);
+
+        String json = MetricsReporter.toJson();
+        Assert.assertTrue(json, json.startsWith("{\"stages\":{\"load\":{\"count\":1,"
+                + "\"meanNanos\":2047.0,\"p50Nanos\":2047,\"p90Nanos\":2047,\"p99Nanos\":2047,"
+                + "\"p99_9Nanos\":2047,\"maxNanos\":2047},\"build\":{\"count\":0,"));
+        Assert.assertTrue(json, json.contains(",\"solve\":{\"count\":2,\"meanNanos\":50.0,"
+                + "\"p50Nanos\":40,\"p90Nanos\":60,\"p99Nanos\":60,\"p99_9Nanos\":60,"
+                + "\"maxNanos\":60},"));
+        Assert.assertTrue(json, json.endsWith("}},\"counters\":{\"nodesExpanded\":0,"
+                + "\"bytesRead\":0}}"));
+        Assert.assertFalse(json, json.contains("\n"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        MetricsReporter reporter = new MetricsReporter(out, 3_600_000, true);
+        reporter.close();
+        Assert.assertEquals(json + System.lineSeparator(),
+                bytes.toString(StandardCharsets.UTF_8));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new MetricsReporter(out, 0, false));
+    }
+
+    /**
+     * Tests that with maze.metrics off, loading and solving a maze leaves every counter and
+     * histogram empty and reads no clock.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     */
+    @Test
+    public void disabledMetricsTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException {
+        Assume.assumeTrue("maze.metrics is set", !Metrics.ENABLED);
+        MazeGrid grid = new FileLoader().loadGrid("src/maps/MediumMap.txt");
+        Assert.assertTrue(BreadthFirstSolver.solve(grid).isSolvable());
+        Counter counter = new Counter("test");
+        counter.add(5);
+
+        Assert.assertEquals(0, counter.get());
+        for (Counter each : Metrics.getCounters()) {
+            Assert.assertEquals(each.getName(), 0, each.get());
+        }
+        for (Stage stage : Stage.values()) {
+            Assert.assertEquals(stage.getLabel(), 0, Metrics.getLatency(stage).getCount());
+        }
+        Assert.assertEquals(0, Metrics.start());
+        Assert.assertNull(MetricsReporter.fromSystemProperties());
+    }
+
+    /**
+     * Finds the value a histogram reports for a recorded value, which is the top of the value's
+     * bucket. A larger value is recorded alongside so the maximum does not cap the report.
+     *
+     * @param value The value to record.
+     * @return The median of the value and the largest possible value.
+     */
+    private static long bucketBound(long value) {
+        Histogram histogram = new Histogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.getPercentile(50);
+    }
+}
@@ -0,0 +1,190 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeUnsolvableException;
+import io.Maze;
+import org.junit.*;
+import replay.MoveLog;
+import replay.MoveRecorder;
+import replay.MoveReplayer;
+import replay.ReplayResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class MoveLogTest {
+    char[][] charMaze;
+
+    /**
+     * Initialises the maze layout used for testing.
+     */
+    @Before
+    public void setUp() {
+        charMaze = new char[][]{
+                {'#', '#', '#', '#', '#', '#', '#'},
+                {'#', 'S', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', '#', '#', ' ', '#'},
+                {'#', ' ', '#', ' ', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', ' ', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#', '#', '#'}
+        };
+    }
+
+    /**
+     * Tests that mixed moves and long runs decode back to the same inputs, ignoring
+     * non-directional characters.
+     */
+    @Test
+    public void roundTripTest() {
+        String inputs = "wasd".repeat(100) + "d".repeat(1000) + "x" + "sa" + "w".repeat(9);
+        MoveLog log = MoveLog.fromInputs(inputs);
+
+        String expected = inputs.replace("x", "");
+        Assert.assertEquals(expected.length(), log.getMoveCount());
+        Assert.assertEquals(expected, log.toInputs());
+    }
+
+    /**
+     * Tests that moves are stored at no more than 2 bits each and long runs collapse.
+     */
+    @Test
+    public void compactEncodingTest() {
+        MoveLog mixed = MoveLog.fromInputs("wasd".repeat(1000));
+        Assert.assertTrue(mixed.getEncodedSize() <= 1000 + 4000 / 128 + 1);
+
+        MoveLog run = MoveLog.fromInputs("d".repeat(1_000_000));
+        Assert.assertTrue(run.getEncodedSize() < 8);
+    }
+
+    /**
+     * Tests that a log survives being written and read back.
+     *
+     * @throws IOException If the in-memory streams fail.
+     */
+    @Test
+    public void writeAndReadTest() throws IOException {
+        MoveRecorder recorder = new MoveRecorder();
+        for (char input : "ssssddwwddssss".toCharArray()) {
+            recorder.record(input);
+        }
+        MoveLog log = recorder.toMoveLog();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        MoveLog read = MoveLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(log, read);
+        Assert.assertThrows(IOException.class,
+                () -> {MoveLog.readFrom(new ByteArrayInputStream(new byte[16]));}
+        );
+    }
+
+    /**
+     * Tests that corrupt logs are rejected with IOException: a header claiming far more data than
+     * the stream holds, a move count the chunks do not decode to, and a chunk cut short.
+     *
+     * @throws IOException If the in-memory streams fail.
+     */
+    @Test
+    public void corruptLogTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MoveLog.fromInputs("wasd".repeat(10) + "d".repeat(100)).writeTo(out);
+        byte[] valid = out.toByteArray();
+        int headerLength = 4 + 1 + 8 + 4;
+        byte[] data = Arrays.copyOfRange(valid, headerLength, valid.length);
+
+        Assert.assertThrows(IOException.class,
+                () -> {MoveLog.readFrom(new ByteArrayInputStream(
+                        logBytes(140, Integer.MAX_VALUE - 8, data)));}
+        );
+        Assert.assertThrows(IOException.class,
+                () -> {MoveLog.readFrom(new ByteArrayInputStream(
+                        logBytes(141, data.length, data)));}
+        );
+        byte[] truncated = Arrays.copyOf(data, 5);
+        Assert.assertThrows(IOException.class,
+                () -> {MoveLog.readFrom(new ByteArrayInputStream(
+                        logBytes(140, truncated.length, truncated)));}
+        );
+        Assert.assertEquals(140, MoveLog.readFrom(new ByteArrayInputStream(
+                logBytes(140, data.length, data))).getMoveCount());
+    }
+
+    /**
+     * Tests that a recorded session replays to the same position and solve point as the
+     * original session.
+     *
+     * @throws InvalidMazeException    If the test maze is invalid.
+     * @throws MazeUnsolvableException If the maze is found unsolvable during the live session.
+     */
+    @Test
+    public void replayMatchesLiveSessionTest() throws InvalidMazeException,
+            MazeUnsolvableException {
+        Maze live = new Maze(charMaze);
+        MoveRecorder recorder = new MoveRecorder();
+        live.setMoveRecorder(recorder);
+        for (char input : "sdsssddwwddss".toCharArray()) {
+            live.playMaze(input);
+        }
+        Assert.assertTrue(live.hasBeenSolved());
+
+        ReplayResult result = new MoveReplayer(true, true)
+                .replay(new Maze(charMaze), recorder.toMoveLog());
+
+        Assert.assertEquals(12, result.getSolvedAtMove());
+        Assert.assertEquals(-1, result.getUnsolvableAtMove());
+        Assert.assertEquals(5, result.getFinalRow());
+        Assert.assertEquals(5, result.getFinalCol());
+        Assert.assertEquals(1, result.getHeatmap()[5 * 7 + 5]);
+    }
+
+    /**
+     * Tests that the replay reports the move on which the maze is found to be unsolvable.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void replayReportsUnsolvableTest() throws InvalidMazeException {
+        // Wall off the end point and the paths around it.
+        charMaze[1][3] = '#';
+        charMaze[1][4] = '#';
+        charMaze[1][5] = '#';
+        charMaze[2][5] = '#';
+        charMaze[3][5] = '#';
+        charMaze[5][5] = '#';
+        charMaze[4][5] = 'E';
+        Maze maze = new Maze(charMaze);
+        // The ninth move reaches the last untraversed path, so the tenth move throws.
+        MoveLog log = MoveLog.fromInputs("ssssddwwdaw");
+
+        ReplayResult result = new MoveReplayer().replay(maze, log);
+
+        Assert.assertEquals(-1, result.getSolvedAtMove());
+        Assert.assertEquals(9, result.getUnsolvableAtMove());
+        Assert.assertEquals(10, result.getMovesApplied());
+    }
+
+    /**
+     * Formats a move log file with the given header fields.
+     *
+     * @param moveCount Move count to put in the header.
+     * @param length    Data length to put in the header.
+     * @param data      Encoded chunks that follow the header.
+     * @return The file contents.
+     * @throws IOException If the in-memory stream fails.
+     */
+    private static byte[] logBytes(long moveCount, int length, byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(0x4D5A4D4C);
+        dataOut.writeByte(1);
+        dataOut.writeLong(moveCount);
+        dataOut.writeInt(length);
+        dataOut.write(data);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
+import io.FileLoader;
+import io.Maze;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.Solution;
+
+import java.io.IOException;
+
+public class OffHeapGridTest {
+
+    /**
+     * Tests that a mapped maze file holds the same cells as the loaded one, and that a maze
+     * built on it plays and solves the same way.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void mappedGridMatchesLoadedGridTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        MazeGrid loaded = new CharArrayGrid(new FileLoader().load("src/maps/MediumMap.txt"));
+        OffHeapGrid mapped = OffHeapGrid.map("src/maps/MediumMap.txt");
+
+        Assert.assertEquals(loaded.getRows(), mapped.getRows());
+        Assert.assertEquals(loaded.getCols(), mapped.getCols());
+        for (int row = 0; row < loaded.getRows(); row++) {
+            for (int col = 0; col < loaded.getCols(); col++) {
+                Assert.assertEquals(loaded.getCell(row, col), mapped.getCell(row, col));
+            }
+        }
+        Assert.assertEquals(loaded.count(MazeGrid.PATH), mapped.count(MazeGrid.PATH));
+        Assert.assertEquals(loaded.find(MazeGrid.END), mapped.find(MazeGrid.END));
+
+        Maze maze = new Maze(mapped);
+        Assert.assertTrue(maze.validMove(2, 1));
+        Assert.assertFalse(maze.validMove(0, 1));
+
+        Solution solution = BreadthFirstSolver.solve(mapped);
+        Assert.assertTrue(solution.isSolvable());
+        Assert.assertEquals(BreadthFirstSolver.solve(loaded).getPathLength(),
+                solution.getPathLength());
+    }
+
+    /**
+     * Tests that mapping rejects malformed files with the same exceptions as loading.
+     */
+    @Test
+    public void mappedGridRejectsMalformedFilesTest() {
+        Assert.assertThrows(MazeSizeMissmatchException.class,
+                () -> {OffHeapGrid.map("src/maps/tests/WidthMismatchSmallMap.txt");}
+        );
+        Assert.assertThrows(MazeMalformedException.class,
+                () -> {OffHeapGrid.map("src/maps/tests/TwoStartPointsSmallMap.txt");}
+        );
+        Assert.assertThrows(MazeMalformedException.class,
+                () -> {OffHeapGrid.map("src/maps/tests/DimensionsMalformedSmallMap.txt");}
+        );
+    }
+
+    /**
+     * Tests that the solver finds a shortest path through an off-heap copy of a grid and
+     * reports an unsolvable maze.
+     *
+     * @throws InvalidMazeException If the test maze is invalid.
+     */
+    @Test
+    public void solverFindsShortestPathTest() throws InvalidMazeException {
+        char[][] charMaze = {
+                {'#', '#', '#', '#', '#'},
+                {'#', 'S', ' ', ' ', '#'},
+                {'#', ' ', '#', ' ', '#'},
+                {'#', ' ', ' ', 'E', '#'},
+                {'#', '#', '#', '#', '#'}
+        };
+        Solution solution = BreadthFirstSolver.solve(
+                OffHeapGrid.copyOf(new CharArrayGrid(charMaze)));
+
+        Assert.assertEquals(4, solution.getPathLength());
+        long[] path = solution.getPath();
+        Assert.assertEquals(6, path[0]);
+        Assert.assertEquals(18, path[4]);
+
+        charMaze[1][2] = '#';
+        charMaze[3][2] = '#';
+        Assert.assertFalse(BreadthFirstSolver.solve(new CharArrayGrid(charMaze)).isSolvable());
+    }
+}
@@ -0,0 +1,177 @@
+package tests;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded random mazes for differential and scale tests.
+ * <p>
+ * Solvable mazes are binary-tree mazes: every cell on an odd row and column opens either up or
+ * right, so all of them are connected, with extra walls knocked out to add loops. Each row depends
+ * only on the row below it, so mazes can be streamed straight to a file without ever being held
+ * in memory, however large they are.
+ * </p>
+ */
+final class RandomMazes {
+
+    /**
+     * Receives a generated maze one row at a time.
+     */
+    interface RowSink {
+        void accept(char[] row) throws IOException;
+    }
+
+    private RandomMazes() {}
+
+    /**
+     * Generates a solvable maze with its start point at (1, 1) and its end point in the last
+     * open cell before the bottom right corner. Every path is reachable from the start point.
+     *
+     * @param rows       Number of rows, at least 3.
+     * @param cols       Number of columns, at least 3.
+     * @param loopChance Chance of knocking out each remaining inner wall.
+     * @param seed       Seed of the random choices.
+     * @param sink       Receives each row in order. The row array is reused.
+     * @throws IOException              If the sink fails.
+     * @throws IllegalArgumentException If the maze would have room for only one open cell.
+     */
+    static void generate(int rows, int cols, double loopChance, long seed, RowSink sink)
+            throws IOException, IllegalArgumentException {
+        int cellRows = (rows - 1) / 2;
+        int cellCols = (cols - 1) / 2;
+        if (cellRows < 1 || cellCols < 1 || cellRows * cellCols < 2) {
+            throw new IllegalArgumentException("Maze too small: " + rows + "x" + cols);
+        }
+        Random random = new Random(seed);
+        char[] row = new char[cols];
+        boolean[] north = new boolean[cellCols];
+        for (int i = 0; i < cellRows; i++) {
+            // Each cell opens up, or right along the top row; the last column can only open up.
+            for (int j = 0; j < cellCols; j++) {
+                north[j] = i > 0 && (j == cellCols - 1 || random.nextBoolean());
+            }
+            // The wall row above this row of cells.
+            Arrays.fill(row, '#');
+            for (int j = 0; i > 0 && j < cellCols; j++) {
+                if (north[j] || random.nextDouble() < loopChance) {
+                    row[2 * j + 1] = ' ';
+                }
+            }
+            sink.accept(row);
+
+            Arrays.fill(row, '#');
+            for (int j = 0; j < cellCols; j++) {
+                row[2 * j + 1] = ' ';
+                if (j < cellCols - 1 && (!north[j] || random.nextDouble() < loopChance)) {
+                    row[2 * j + 2] = ' ';
+                }
+            }
+            if (i == 0) {
+                row[1] = 'S';
+            }
+            if (i == cellRows - 1) {
+                row[2 * cellCols - 1] = 'E';
+            }
+            sink.accept(row);
+        }
+        Arrays.fill(row, '#');
+        for (int y = 2 * cellRows; y < rows; y++) {
+            sink.accept(row);
+        }
+    }
+
+    /**
+     * Generates a solvable maze in memory.
+     *
+     * @param rows       Number of rows, at least 3.
+     * @param cols       Number of columns, at least 3.
+     * @param loopChance Chance of knocking out each remaining inner wall.
+     * @param seed       Seed of the random choices.
+     * @return The maze's cells.
+     * @see #generate(int, int, double, long, RowSink)
+     */
+    static char[][] generate(int rows, int cols, double loopChance, long seed) {
+        char[][] maze = new char[rows][];
+        int[] next = {0};
+        try {
+            generate(rows, cols, loopChance, seed, row -> maze[next[0]++] = row.clone());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return maze;
+    }
+
+    /**
+     * Generates random cells with a start and end point at random, which may well not be
+     * connected.
+     *
+     * @param rows       Number of rows.
+     * @param cols       Number of columns; rows * cols must be at least 2.
+     * @param wallChance Chance of each cell being a wall.
+     * @param seed       Seed of the random choices.
+     * @return The maze's cells.
+     */
+    static char[][] noise(int rows, int cols, double wallChance, long seed) {
+        Random random = new Random(seed);
+        char[][] maze = new char[rows][cols];
+        for (char[] row : maze) {
+            for (int col = 0; col < cols; col++) {
+                double roll = random.nextDouble();
+                row[col] = roll < wallChance ? '#' : roll < (1 + wallChance) / 2 ? ' ' : '.';
+            }
+        }
+        int start = random.nextInt(rows * cols);
+        int end = random.nextInt(rows * cols - 1);
+        if (end >= start) {
+            end++;
+        }
+        maze[start / cols][start % cols] = 'S';
+        maze[end / cols][end % cols] = 'E';
+        return maze;
+    }
+
+    /**
+     * Formats a maze the way maze files are written: a dimensions line, then one line per row.
+     *
+     * @param maze The maze's cells.
+     * @return The file contents.
+     */
+    static String toText(char[][] maze) {
+        StringBuilder text = new StringBuilder(maze.length + " " + maze[0].length + "\n");
+        for (char[] row : maze) {
+            text.append(row).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Streams a solvable maze to a file.
+     *
+     * @param file       Where to write the maze.
+     * @param rows       Number of rows, at least 3.
+     * @param cols       Number of columns, at least 3.
+     * @param loopChance Chance of knocking out each remaining inner wall.
+     * @param seed       Seed of the random choices.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path file, int rows, int cols, double loopChance, long seed)
+            throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write((rows + " " + cols + "\n").getBytes(StandardCharsets.US_ASCII));
+            byte[] line = new byte[cols + 1];
+            line[cols] = '\n';
+            generate(rows, cols, loopChance, seed, row -> {
+                for (int col = 0; col < cols; col++) {
+                    line[col] = (byte) row[col];
+                }
+                out.write(line);
+            });
+        }
+    }
+}
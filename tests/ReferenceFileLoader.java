@@ -0,0 +1,94 @@
+package tests;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import io.FileInterface;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * The original character-at-a-time maze loader, kept unchanged as the reference that faster
+ * loaders are tested against. Do not optimise it.
+ * <p>
+ * It differs from {@link io.FileLoader} in one deliberate way: rows shorter than the dimensions
+ * line, and missing rows, are accepted and left as '\0' cells, where FileLoader throws
+ * {@link MazeSizeMissmatchException}.
+ * </p>
+ */
+class ReferenceFileLoader implements FileInterface {
+
+    @Override
+    public char[][] load(String filename) throws MazeMalformedException, MazeSizeMissmatchException,
+            IllegalArgumentException, IOException {
+        // Get maze dimensions from first line of the file.
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String dimensionsLine = reader.readLine();
+            if (dimensionsLine == null) {
+                throw new MazeMalformedException("No dimensions given.");
+            }
+
+            String[] dimensionsParsed = dimensionsLine.split(" ");
+            if (dimensionsParsed.length != 2) {
+                throw new MazeMalformedException("Dimensions not provided in appropriate format.");
+            }
+
+            int expectedRows = Integer.parseInt(dimensionsParsed[0]);
+            int expectedColumns = Integer.parseInt(dimensionsParsed[1]);
+
+            // Create 2D array that maps the given maze with appropriate dimensions.
+            char[][] mazeMap = new char[expectedRows][expectedColumns];
+            int currentRow = 0;
+            int currentCol = 0;
+            boolean hasStartPoint = false;
+            boolean hasEndPoint = false;
+
+            int dataIn = reader.read();
+            while (dataIn != -1) {
+                char castedChar = (char) dataIn;
+
+                // Do not add new line characters to the array.
+                // \n indicates the end of a row.
+                if (castedChar == '\n') {
+                    currentCol = 0;
+                    currentRow++;
+                    dataIn = reader.read();
+                    continue;
+                }
+                switch (castedChar) {
+                    case '#', ' ', '.' -> {}
+                    case 'S' -> {
+                        if (hasStartPoint) { // Throws error if there already exists a start point.
+                            throw new MazeMalformedException("More than one start point.");
+                        }
+                        hasStartPoint = true;
+                    }
+                    case 'E' -> {
+                        if (hasEndPoint) { // Throws error if there already exists an end point.
+                            throw new MazeMalformedException("More than one end point.");
+                        }
+                        hasEndPoint = true;
+                    }
+                    default -> throw new MazeMalformedException("Invalid character in maze.");
+                }
+
+                if (currentRow >= expectedRows || currentCol >= expectedColumns) {
+                    throw new MazeSizeMissmatchException
+                            ("Specified dimensions incongruent to provided map.");
+                }
+
+                mazeMap[currentRow][currentCol] = castedChar;
+                currentCol++;
+                dataIn = reader.read();
+            }
+
+            // Maze must have a single start and end point.
+            if (!hasStartPoint || !hasEndPoint) {
+                throw new MazeMalformedException("No start point or end point provided.");
+            }
+
+            return mazeMap;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package tests;
+
+import analysis.MazeAnalyser;
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
+import io.FileLoader;
+import io.Maze;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.Solution;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Time and memory budgets for loading and solving large mazes, and the malformed test maps
+ * scaled up, with the fault at the end of the file where it is most expensive to find.
+ * <p>
+ * Memory is measured as bytes allocated on the heap by the test thread, which unlike heap
+ * occupancy does not depend on when the garbage collector runs. Time budgets are about ten times
+ * what a single slow core needs. The 100 million cell test writes a 100 MB file and needs a heap
+ * of about 1 GB, so it only runs when the maze.scaleTests system property is true, e.g.
+ * {@code java -Xmx1g -Dmaze.scaleTests=true ...}.
+ * </p>
+ */
+public class ScaleTest {
+    private static final String SCALE_TESTS_PROPERTY = "maze.scaleTests";
+    private static final int MEGABYTE = 1 << 20;
+
+    Path file;
+
+    /**
+     * Creates the file that generated mazes are written to.
+     *
+     * @throws IOException If the file cannot be created.
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("maze", ".txt");
+    }
+
+    /**
+     * Removes the generated maze file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests loading, building and solving a maze of about a million cells within budget, and
+     * that the result matches the reference loader.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void millionCellBudgetTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        RandomMazes.write(file, 1001, 1001, 0.1, 1);
+        checkBudgets(1001, 2_000);
+
+        char[][] expected = new ReferenceFileLoader().load(file.toString());
+        Assert.assertTrue(Arrays.deepEquals(expected, new FileLoader().load(file.toString())));
+    }
+
+    /**
+     * Tests loading, building and solving a maze of about 100 million cells within budget.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void hundredMillionCellBudgetTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        Assume.assumeTrue(SCALE_TESTS_PROPERTY + " is not set",
+                Boolean.getBoolean(SCALE_TESTS_PROPERTY));
+        RandomMazes.write(file, 10001, 10001, 0.1, 1);
+        checkBudgets(10001, 30_000);
+    }
+
+    /**
+     * Loads, builds and solves the maze in the test file, from the heap and mapped off-heap,
+     * checking each step against its budget.
+     *
+     * @param side          Number of rows and columns in the maze.
+     * @param millisPerStep Time budget of each step.
+     */
+    private void checkBudgets(int side, long millisPerStep) throws MazeSizeMissmatchException,
+            IOException, MazeMalformedException, InvalidMazeException {
+        long cells = (long) side * side;
+        String filename = file.toString();
+
+        Budget budget = new Budget();
+        MazeGrid grid = new FileLoader().loadGrid(filename);
+        // Two bytes per cell for the characters, plus the traversable cell bitmap.
+        budget.check("loadGrid", millisPerStep, cells * 2 + cells / 8 + MEGABYTE);
+
+        budget = new Budget();
+        Maze maze = new Maze(grid);
+        budget.check("Maze", millisPerStep, MEGABYTE);
+
+        budget = new Budget();
+        Solution solution = BreadthFirstSolver.solve(maze);
+        budget.check("solve", millisPerStep, 4 * MEGABYTE);
+        Assert.assertTrue(solution.isSolvable());
+        // Let the heap copy go before mapping the file.
+        grid = null;
+        maze = null;
+
+        budget = new Budget();
+        OffHeapGrid mapped = OffHeapGrid.map(filename);
+        budget.check("OffHeapGrid.map", millisPerStep, MEGABYTE);
+
+        budget = new Budget();
+        Solution mappedSolution = BreadthFirstSolver.solve(mapped);
+        budget.check("solve mapped", millisPerStep, 4 * MEGABYTE);
+        Assert.assertEquals(solution.getPathLength(), mappedSolution.getPathLength());
+    }
+
+    /**
+     * Tests that the malformed test maps, scaled up to a million cells with the fault as late in
+     * the file as it can be, raise the same exceptions without allocating the maze.
+     *
+     * @throws IOException If the maze file cannot be written.
+     */
+    @Test
+    public void largeMalformedMapsTest() throws IOException {
+        int side = 1001;
+        char[][] maze = RandomMazes.generate(side, side, 0.1, 2);
+        String valid = RandomMazes.toText(maze);
+        String header = side + " " + side + "\n";
+
+        checkRejected(MazeMalformedException.class, "", side);
+        checkRejected(MazeMalformedException.class, side + " " + side + " 1"
+                + valid.substring(header.length() - 1), side);
+        checkRejected(MazeMalformedException.class, side + " x" + side
+                + valid.substring(header.length() - 1), side);
+        checkRejected(MazeSizeMissmatchException.class,
+                "30000 30000" + valid.substring(header.length() - 1), side);
+        checkRejected(MazeSizeMissmatchException.class, valid + "#".repeat(side) + "\n", side);
+        checkRejected(MazeSizeMissmatchException.class,
+                valid.substring(0, valid.length() - 1) + "#\n", side);
+        checkRejected(MazeMalformedException.class, replaceLast(valid, '#', 'X'), side);
+        checkRejected(MazeMalformedException.class, replaceLast(valid, '#', 'S'), side);
+        checkRejected(MazeMalformedException.class, replaceLast(valid, '#', 'E'), side);
+        checkRejected(MazeMalformedException.class, valid.replace('E', ' '), side);
+        checkRejected(MazeMalformedException.class, valid.replace('S', ' '), side);
+
+        // Only the loader limits dimensions, so a mapped grid reports the length mismatch.
+        Files.write(file, (FileLoader.DEFAULT_MAX_DIMENSION + 1 + " 1\n#\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        Assert.assertThrows(MazeMalformedException.class,
+                () -> {new FileLoader().load(file.toString());}
+        );
+        Assert.assertThrows(MazeSizeMissmatchException.class,
+                () -> {OffHeapGrid.map(file.toString());}
+        );
+    }
+
+    /**
+     * Tests that a large maze whose end point is walled in loads, and that the solvers agree it
+     * cannot be solved.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     */
+    @Test
+    public void largeUnsolvableMapTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException {
+        int side = 1001;
+        char[][] maze = RandomMazes.generate(side, side, 0.1, 3);
+        maze[side - 2][side - 2] = ' ';
+        maze[side - 1][side - 1] = 'E';
+        Files.write(file, RandomMazes.toText(maze).getBytes(StandardCharsets.US_ASCII));
+
+        MazeGrid grid = new FileLoader().loadGrid(file.toString());
+        Assert.assertFalse(BreadthFirstSolver.solve(grid).isSolvable());
+        Assert.assertFalse(MazeAnalyser.analyse(grid).isSolvable());
+    }
+
+    /**
+     * Writes a maze file and checks that the loaders reject it with the given exception, and
+     * without allocating anything near the size of the maze.
+     *
+     * @param expected Class of the exception the file should raise.
+     * @param text     Contents of the file.
+     * @param side     Number of rows and columns the file is meant to have.
+     */
+    private void checkRejected(Class<? extends Exception> expected, String text, int side)
+            throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.ISO_8859_1));
+        String filename = file.toString();
+        long cells = (long) side * side;
+
+        Budget budget = new Budget();
+        Assert.assertThrows(expected, () -> {new FileLoader().load(filename);});
+        budget.check("load " + expected.getSimpleName(), 2_000, cells / 2);
+
+        budget = new Budget();
+        Assert.assertThrows(expected, () -> {new FileLoader().loadGrid(filename);});
+        budget.check("loadGrid " + expected.getSimpleName(), 2_000, cells / 2);
+
+        budget = new Budget();
+        Assert.assertThrows(expected, () -> {OffHeapGrid.map(filename);});
+        budget.check("OffHeapGrid.map " + expected.getSimpleName(), 2_000, MEGABYTE);
+    }
+
+    private static String replaceLast(String text, char from, char to) {
+        int index = text.lastIndexOf(from);
+        return text.substring(0, index) + to + text.substring(index + 1);
+    }
+
+    /**
+     * Elapsed time and heap allocation of the test thread since the budget was created.
+     */
+    private static class Budget {
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+
+        /**
+         * Asserts that the step since the budget was created stayed within its limits.
+         *
+         * @param step      Name of the step, for failure messages.
+         * @param maxMillis Time limit.
+         * @param maxBytes  Heap allocation limit.
+         */
+        void check(String step, long maxMillis, long maxBytes) {
+            long bytes = THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+            long millis = (System.nanoTime() - startNanos) / 1_000_000;
+            Assert.assertTrue(step + " allocated " + bytes + " bytes, budget " + maxBytes,
+                    bytes <= maxBytes);
+            Assert.assertTrue(step + " took " + millis + " ms, budget " + maxMillis,
+                    millis <= maxMillis);
+        }
+    }
+}
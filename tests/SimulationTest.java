@@ -0,0 +1,98 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import grid.CharArrayGrid;
+import org.junit.*;
+import simulation.Simulation;
+import simulation.SimulationReport;
+import simulation.Strategy;
+
+import java.util.Arrays;
+
+public class SimulationTest {
+
+    /**
+     * Tests that wall followers and Trémaux agents all reach the end point of a maze without
+     * loops, within the steps their strategies allow, and that the heatmap counts every step.
+     *
+     * @throws InvalidMazeException If the generated maze is invalid.
+     */
+    @Test
+    public void strategiesReachEndTest() throws InvalidMazeException {
+        char[][] cells = RandomMazes.generate(41, 61, 0, 7);
+        Simulation simulation = new Simulation(new CharArrayGrid(cells), 2, true);
+        simulation.addAgents(Strategy.WALL_FOLLOWER, 50, 1);
+        simulation.addAgents(Strategy.TREMAUX, 200, 2);
+        simulation.addAgents(Strategy.RANDOM_WALK, 200, 3);
+
+        SimulationReport report = simulation.run(20_000);
+
+        // Neither strategy walks a passage more than twice, and the maze has under 1200 of them.
+        Assert.assertEquals(50, report.getTimeToExit(Strategy.WALL_FOLLOWER).getCount());
+        Assert.assertTrue(report.getTimeToExit(Strategy.WALL_FOLLOWER).getMax() < 2400);
+        Assert.assertEquals(200, report.getTimeToExit(Strategy.TREMAUX).getCount());
+        Assert.assertTrue(report.getTimeToExit(Strategy.TREMAUX).getMax() < 2400);
+        Assert.assertEquals(0, report.getStuckCount());
+        Assert.assertEquals(report.getAgentSteps(), Arrays.stream(report.getHeatmap()).sum());
+        Assert.assertEquals(report.getExitedCount(), report.getHeatmap()[39 * 61 + 59]);
+    }
+
+    /**
+     * Tests that the outcome of a simulation on a maze with loops depends only on the agents'
+     * seeds, not on the number of workers or how the steps are split between runs.
+     *
+     * @throws InvalidMazeException If the generated maze is invalid.
+     */
+    @Test
+    public void sameOutcomeAcrossWorkersTest() throws InvalidMazeException {
+        CharArrayGrid grid = new CharArrayGrid(RandomMazes.generate(61, 61, 0.2, 11));
+        SimulationReport[] reports = new SimulationReport[2];
+        for (int i = 0; i < reports.length; i++) {
+            Simulation simulation = new Simulation(grid, i == 0 ? 1 : 3, true);
+            for (Strategy strategy : Strategy.values()) {
+                simulation.addAgents(strategy, 700, 5);
+            }
+            if (i == 0) {
+                reports[0] = simulation.run(30_000);
+            } else {
+                simulation.run(1_000);
+                simulation.run(9_000);
+                reports[1] = simulation.run(20_000);
+            }
+        }
+
+        Assert.assertEquals(reports[0].getAgentSteps(), reports[1].getAgentSteps());
+        Assert.assertArrayEquals(reports[0].getHeatmap(), reports[1].getHeatmap());
+        for (Strategy strategy : Strategy.values()) {
+            Assert.assertEquals(reports[0].getTimeToExit(strategy).getCount(),
+                    reports[1].getTimeToExit(strategy).getCount());
+            Assert.assertEquals(reports[0].getTimeToExit(strategy).getMax(),
+                    reports[1].getTimeToExit(strategy).getMax());
+        }
+        // Trémaux's algorithm solves mazes with loops too.
+        Assert.assertEquals(700, reports[0].getTimeToExit(Strategy.TREMAUX).getCount());
+    }
+
+    /**
+     * Tests that Trémaux agents give up on an unsolvable maze once they have walked every passage
+     * twice, while agents of the other strategies keep walking.
+     *
+     * @throws InvalidMazeException If the generated maze is invalid.
+     */
+    @Test
+    public void unsolvableMazeTest() throws InvalidMazeException {
+        char[][] cells = RandomMazes.generate(21, 21, 0.3, 3);
+        cells[18][19] = '#';
+        cells[19][18] = '#';
+        Simulation simulation = new Simulation(new CharArrayGrid(cells), 1, false);
+        simulation.addAgents(Strategy.TREMAUX, 20, 1);
+        simulation.addAgents(Strategy.RANDOM_WALK, 20, 1);
+
+        SimulationReport report = simulation.run(100_000);
+
+        Assert.assertEquals(0, report.getExitedCount());
+        Assert.assertEquals(20, report.getStuckCount());
+        Assert.assertEquals(20, report.getActiveCount());
+        Assert.assertThrows(IllegalArgumentException.class, () -> simulation.run(-1));
+    }
+}
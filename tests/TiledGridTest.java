@@ -0,0 +1,66 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.TiledGrid;
+import io.FileLoader;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.Solution;
+
+import java.io.IOException;
+
+public class TiledGridTest {
+
+    /**
+     * Tests that a tiled copy holds the same cells as the original when the dimensions are not
+     * a multiple of the tile size, and that each cell has its own storage position.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void tiledCopyMatchesOriginalTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        MazeGrid original = new CharArrayGrid(new FileLoader().load("src/maps/MediumMap.txt"));
+        TiledGrid tiled = TiledGrid.copyOf(original, 3);
+
+        boolean[] used = new boolean[(int) tiled.getStorageSize()];
+        for (int row = 0; row < original.getRows(); row++) {
+            for (int col = 0; col < original.getCols(); col++) {
+                Assert.assertEquals(original.getCell(row, col), tiled.getCell(row, col));
+                int index = (int) tiled.storageIndexOf(row, col);
+                Assert.assertFalse(used[index]);
+                used[index] = true;
+            }
+        }
+        Assert.assertEquals(original.find(MazeGrid.START), tiled.find(MazeGrid.START));
+        Assert.assertThrows(IndexOutOfBoundsException.class,
+                () -> {tiled.getCell(original.getRows(), 0);}
+        );
+    }
+
+    /**
+     * Tests that solving a tiled grid gives the same path as solving the original.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void tiledSolveMatchesOriginalTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        MazeGrid original = new CharArrayGrid(new FileLoader().load("src/maps/LargeMap.txt"));
+        Solution expected = BreadthFirstSolver.solve(original);
+        Solution actual = BreadthFirstSolver.solve(TiledGrid.copyOf(original));
+
+        Assert.assertEquals(expected.getPathLength(), actual.getPathLength());
+        Assert.assertArrayEquals(expected.getPath(), actual.getPath());
+    }
+}
@@ -0,0 +1,155 @@
+package tests;
+
+import exceptions.InvalidMazeException;
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import grid.CharArrayGrid;
+import grid.MazeGrid;
+import grid.OffHeapGrid;
+import grid.TerrainType;
+import grid.TiledGrid;
+import io.FileLoader;
+import io.Maze;
+import mazeComponents.Terrain;
+import org.junit.*;
+import solver.BreadthFirstSolver;
+import solver.Solution;
+import solver.WeightedSolver;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class WeightedSolverTest {
+
+    /**
+     * Tests that terrain loads through every loader, becomes Terrain components, counts as path,
+     * and that the weighted solver walks around expensive terrain the breadth-first solver
+     * wades through.
+     *
+     * @throws MazeSizeMissmatchException If the maze dimensions do not match the provided size.
+     * @throws IOException                If there are IO errors concerning the file.
+     * @throws MazeMalformedException     If the maze data is not correctly formatted.
+     * @throws InvalidMazeException       If the maze is invalid.
+     */
+    @Test
+    public void terrainMapTest() throws MazeSizeMissmatchException, IOException,
+            MazeMalformedException, InvalidMazeException {
+        FileLoader loader = new FileLoader();
+        MazeGrid grid = loader.loadGrid("src/maps/TerrainMap.txt");
+        MazeGrid plain = new CharArrayGrid(loader.load("src/maps/TerrainMap.txt"));
+        MazeGrid mapped = OffHeapGrid.map("src/maps/TerrainMap.txt");
+        Assert.assertEquals(24, grid.countPaths());
+        Assert.assertEquals(24, plain.countPaths());
+        Assert.assertEquals(24, mapped.countPaths());
+        Assert.assertArrayEquals(plain.getTraversableBitmap(), grid.getTraversableBitmap());
+
+        Maze maze = new Maze(grid);
+        Assert.assertTrue(maze.getComponentAt(1, 4) instanceof Terrain);
+        Assert.assertEquals(TerrainType.WATER, ((Terrain) maze.getComponentAt(1, 4)).getType());
+        Assert.assertTrue(maze.validMove(1, 2));
+
+        Solution fewestMoves = BreadthFirstSolver.solve(maze);
+        Assert.assertEquals(6, fewestMoves.getPathLength());
+        Assert.assertEquals(2 + 2 + 8 + 8 + 8 + 1, fewestMoves.getPathCost());
+
+        Solution cheapest = WeightedSolver.solve(maze);
+        Assert.assertEquals(10, cheapest.getPathLength());
+        Assert.assertEquals(12, cheapest.getPathCost());
+        Assert.assertEquals(3 * 9 + 4, cheapest.getPath()[5]);
+        Assert.assertEquals(12, WeightedSolver.solve(mapped).getPathCost());
+    }
+
+    /**
+     * Tests that the weighted solver matches a textbook Dijkstra search on random terrain, on
+     * every grid layout, and costs the same as the breadth-first solver where there is no
+     * terrain.
+     *
+     * @throws InvalidMazeException If a generated maze is invalid.
+     */
+    @Test
+    public void matchesReferenceTest() throws InvalidMazeException {
+        Random random = new Random(39);
+        TerrainType[] terrain = TerrainType.values();
+        for (int i = 0; i < 300; i++) {
+            int rows = 5 + random.nextInt(40);
+            int cols = 5 + random.nextInt(40);
+            char[][] maze = RandomMazes.generate(rows, cols, random.nextDouble() / 2,
+                    random.nextLong());
+            MazeGrid grid = new CharArrayGrid(maze);
+            Assert.assertEquals(BreadthFirstSolver.solve(grid).getPathLength(),
+                    WeightedSolver.solve(grid).getPathCost());
+
+            double terrainChance = random.nextDouble();
+            for (char[] row : maze) {
+                for (int col = 0; col < cols; col++) {
+                    if (row[col] == ' ' && random.nextDouble() < terrainChance) {
+                        row[col] = terrain[random.nextInt(terrain.length)].getSymbol();
+                    }
+                }
+            }
+            grid = new CharArrayGrid(maze);
+            long expected = referenceCost(maze);
+            String message = "Case " + i + ":\n" + RandomMazes.toText(maze);
+
+            Solution solution = WeightedSolver.solve(grid);
+            Assert.assertEquals(message, expected, solution.getPathCost());
+            long cost = 0;
+            long[] path = solution.getPath();
+            for (int j = 1; j < path.length; j++) {
+                cost += TerrainType.costOf(maze[(int) (path[j] / cols)][(int) (path[j] % cols)]);
+            }
+            Assert.assertEquals(message, expected, cost);
+            Assert.assertEquals(message, expected,
+                    WeightedSolver.solve(OffHeapGrid.copyOf(grid)).getPathCost());
+            Assert.assertEquals(message, expected,
+                    WeightedSolver.solve(TiledGrid.copyOf(grid, 2)).getPathCost());
+        }
+    }
+
+    /**
+     * Finds the cheapest cost from the start point to the end point with a priority queue.
+     *
+     * @param maze The maze's cells.
+     * @return The cost, or -1 if the end point cannot be reached.
+     */
+    private static long referenceCost(char[][] maze) {
+        int rows = maze.length;
+        int cols = maze[0].length;
+        long[] cost = new long[rows * cols];
+        Arrays.fill(cost, Long.MAX_VALUE);
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if (maze[cell / cols][cell % cols] == 'S') {
+                cost[cell] = 0;
+                queue.add(new long[]{0, cell});
+            }
+        }
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int cell = (int) entry[1];
+            if (entry[0] > cost[cell]) {
+                continue;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            if (maze[row][col] == 'E') {
+                return entry[0];
+            }
+            int[][] neighbours = {{row - 1, col}, {row + 1, col}, {row, col - 1}, {row, col + 1}};
+            for (int[] next : neighbours) {
+                if (next[0] < 0 || next[0] >= rows || next[1] < 0 || next[1] >= cols) {
+                    continue;
+                }
+                int step = TerrainType.costOf(maze[next[0]][next[1]]);
+                int index = next[0] * cols + next[1];
+                if (step > 0 && entry[0] + step < cost[index]) {
+                    cost[index] = entry[0] + step;
+                    queue.add(new long[]{cost[index], index});
+                }
+            }
+        }
+        return -1;
+    }
+}